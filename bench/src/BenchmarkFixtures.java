@@ -0,0 +1,250 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Builds the workloads measured by the JMH benchmarks in the {@code benchmarks} package.
+ *
+ * JMH cannot generate benchmarks for classes in the default package, which is where the game
+ * lives, so the benchmarks look this class up by name and drive the game through the plain JDK
+ * interfaces it returns. Must be used from the repository root, since sprites are read from res/.
+ */
+public class BenchmarkFixtures {
+    private static final String PROPERTIES_FILE = "res/app.properties";
+    private static final long SEED = 42;
+    // Far off screen, so Mario never picks them up
+    private static final String UNREACHABLE = "-1000,-1000";
+    private static final FrameInput[] MARIO_INPUTS = {
+            FrameInput.of(FrameInput.RIGHT),
+            FrameInput.of(FrameInput.RIGHT | FrameInput.JUMP),
+            FrameInput.of(FrameInput.RIGHT),
+            FrameInput.of(FrameInput.LEFT),
+            FrameInput.of(FrameInput.LEFT | FrameInput.JUMP),
+            FrameInput.of(FrameInput.UP),
+            FrameInput.NONE
+    };
+
+    /**
+     * Builds a gravity pass over barrels that each keep their state in their own store,
+     * updated one object at a time like {@link Level1Simulation} does.
+     *
+     * @param count    the number of barrels
+     * @param shuffled whether to visit the barrels in random heap order, as after a long session
+     * @param seed     the seed for the starting positions and the visiting order
+     * @return a task running one tick of gravity for every barrel
+     */
+    public static Runnable gravityPerEntity(int count, boolean shuffled, long seed) {
+        Properties gameProps = IOUtils.readPropertiesFile(PROPERTIES_FILE);
+        PlatformIndex platforms = new PlatformIndex(createPlatforms(gameProps));
+        Random random = new Random(seed);
+        ArrayList<Barrel> barrels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            barrels.add(new Barrel(randomX(gameProps, random), randomY(gameProps, random)));
+        }
+        if (shuffled) {
+            Collections.shuffle(barrels, random);
+        }
+        return () -> {
+            for (Barrel barrel : barrels) {
+                barrel.update(platforms);
+            }
+        };
+    }
+
+    /**
+     * Builds a gravity pass over barrels that share one {@link EntityStore},
+     * updated in a single sweep like {@link Level2Simulation} does.
+     *
+     * @param count the number of barrels
+     * @param seed  the seed for the starting positions
+     * @return a task running one tick of gravity for every barrel
+     */
+    public static Runnable gravityEntityStore(int count, long seed) {
+        Properties gameProps = IOUtils.readPropertiesFile(PROPERTIES_FILE);
+        PlatformIndex platforms = new PlatformIndex(createPlatforms(gameProps));
+        Random random = new Random(seed);
+        EntityStore entities = new EntityStore(count);
+        for (int i = 0; i < count; i++) {
+            new Barrel(entities, randomX(gameProps, random), randomY(gameProps, random));
+        }
+        return () -> entities.applyGravity(0, entities.size(), platforms);
+    }
+
+    /**
+     * Builds a pass calling {@link GravityEntity#update(PlatformIndex)} on every barrel of a Level 2.
+     *
+     * @param entities the number of barrels
+     * @return a task running one tick of gravity for every barrel
+     */
+    public static Runnable gravityUpdate(int entities) {
+        Level2Simulation level = new Level2Simulation(level2Properties(entities), 0);
+        ArrayList<Barrel> barrels = level.getBarrels();
+        PlatformIndex platforms = new PlatformIndex(level.getPlatforms());
+        return () -> {
+            for (Barrel barrel : barrels) {
+                barrel.update(platforms);
+            }
+        };
+    }
+
+    /**
+     * Builds a pass calling {@link Monkey#move()} on every monkey of a Level 2.
+     *
+     * @param entities the number of monkeys
+     * @return a task moving every monkey one step
+     */
+    public static Runnable monkeyMove(int entities) {
+        Level2Simulation level = new Level2Simulation(level2Properties(entities), 0);
+        ArrayList<Monkey> monkeys = level.getMonkeys();
+        return () -> {
+            for (Monkey monkey : monkeys) {
+                monkey.move();
+            }
+        };
+    }
+
+    /**
+     * Builds a call to {@link Mario#updateLevel2} in a Level 2, cycling through a fixed
+     * set of inputs so Mario walks, jumps and tries to climb.
+     *
+     * @param entities the number of barrels and monkeys in the level
+     * @return a task updating Mario for one tick
+     */
+    public static Runnable marioUpdateLevel2(int entities) {
+        Level2Simulation level = new Level2Simulation(level2Properties(entities), 0);
+        Mario mario = level.getMario();
+        ArrayList<Ladder> ladders = level.getLadders();
+        PlatformIndex platforms = new PlatformIndex(level.getPlatforms());
+        ProjectilePool<Bullet> bullets = level.getBulletPool();
+        int[] tick = {0};
+        return () -> {
+            FrameInput input = MARIO_INPUTS[tick[0]++ % MARIO_INPUTS.length];
+            mario.updateLevel2(input, ladders, platforms, bullets);
+        };
+    }
+
+    /**
+     * Builds fresh Level 2 states with one bullet in flight per monkey, for the collision block
+     * of {@link Level2Simulation#step(FrameInput)}. Bullets kill monkeys, so every measurement
+     * needs a state of its own; each call to the supplier builds one.
+     *
+     * @param entities the number of monkeys and bullets
+     * @return a supplier of tasks, each running the bullet phase once on its own level
+     */
+    public static Supplier<Runnable> bulletCollisions(int entities) {
+        Properties gameProps = level2Properties(entities);
+        Random random = new Random(SEED);
+        return () -> {
+            Level2Simulation level = new Level2Simulation(gameProps, 0);
+            ProjectilePool<Bullet> bullets = level.getBulletPool();
+            for (int i = 0; i < entities; i++) {
+                bullets.launch(randomX(gameProps, random), randomY(gameProps, random), random.nextBoolean());
+            }
+            return level::updateBullets;
+        };
+    }
+
+    /**
+     * Builds full Level 2 ticks with an idle player. When the level ends it is started again,
+     * so the cost of loading a level is spread over the ticks of a whole session.
+     *
+     * @param entities the number of barrels and monkeys
+     * @return a task running one tick of the level
+     */
+    public static Runnable levelTick(int entities) {
+        return levelTick(entities, 1);
+    }
+
+    /**
+     * Builds full Level 2 ticks with an idle player, with the entity updates split across threads.
+     *
+     * @param entities the number of barrels and monkeys
+     * @param threads  the number of threads the entity update phases run on
+     * @return a task running one tick of the level
+     */
+    public static Runnable levelTick(int entities, int threads) {
+        Properties gameProps = level2Properties(entities);
+        PhaseExecutor phases = PhaseExecutor.create(Integer.toString(threads));
+        Level2Simulation[] level = {new Level2Simulation(gameProps, 0)};
+        level[0].setPhaseExecutor(phases);
+        return () -> {
+            if (level[0].step(FrameInput.NONE)) {
+                level[0] = new Level2Simulation(gameProps, 0);
+                level[0].setPhaseExecutor(phases);
+            }
+        };
+    }
+
+    /**
+     * Builds the step of a search branching from a running Level 2: forking the level and
+     * advancing the copy by one tick, as a planner trying out a move does.
+     *
+     * @param entities the number of barrels and monkeys
+     * @return a task forking the level and running one tick of the copy
+     */
+    public static Runnable levelFork(int entities) {
+        Level2Simulation level = new Level2Simulation(level2Properties(entities), 0);
+        for (int i = 0; i < LevelSimulation.TICKS_PER_SECOND; i++) {
+            level.step(FrameInput.NONE);
+        }
+        return () -> level.fork().step(FrameInput.NONE);
+    }
+
+    /**
+     * Builds Level 2 properties with the given number of barrels, monkeys and bullets.
+     * The extra barrels and monkeys are copies of the ones in the game's own layout, shifted
+     * right a little, so they stay on the same platforms and away from where Mario starts.
+     *
+     * @param entities the number of barrels, of monkeys and of bullets the level can hold
+     * @return the properties
+     */
+    private static Properties level2Properties(int entities) {
+        Properties gameProps = IOUtils.readPropertiesFile(PROPERTIES_FILE);
+        Properties level = new Properties();
+        level.putAll(gameProps);
+
+        copyWithOffsets(gameProps, level, "barrel.level2", entities);
+        int intelligentCount = entities / 2;
+        copyWithOffsets(gameProps, level, "intelligentMonkey.level2", intelligentCount);
+        copyWithOffsets(gameProps, level, "normalMonkey.level2", entities - intelligentCount);
+
+        // Each blaster holds a few bullets; enough of them for one bullet per entity
+        int blasterCount = (entities + Mario.TOTAL_BULLETS - 1) / Mario.TOTAL_BULLETS;
+        level.setProperty("blaster.level2.count", Integer.toString(blasterCount));
+        for (int i = 1; i <= blasterCount; i++) {
+            level.setProperty("blaster.level2." + i, UNREACHABLE);
+        }
+        return level;
+    }
+
+    private static void copyWithOffsets(Properties from, Properties to, String prefix, int count) {
+        int templateCount = Integer.parseInt(from.getProperty(prefix + ".count"));
+        to.setProperty(prefix + ".count", Integer.toString(count));
+        for (int i = 0; i < count; i++) {
+            String template = from.getProperty(prefix + "." + (i % templateCount + 1));
+            int comma = template.indexOf(',');
+            double x = Double.parseDouble(template.substring(0, comma)) + (i / templateCount) % 10 * 5;
+            to.setProperty(prefix + "." + (i + 1), x + template.substring(comma));
+        }
+    }
+
+    private static Platform[] createPlatforms(Properties gameProps) {
+        String[] platformEntries = gameProps.getProperty("platforms.level2").split(";");
+        Platform[] platforms = new Platform[platformEntries.length];
+        for (int i = 0; i < platformEntries.length; i++) {
+            String[] coord = platformEntries[i].trim().split(",");
+            platforms[i] = new Platform(Double.parseDouble(coord[0]), Double.parseDouble(coord[1]));
+        }
+        return platforms;
+    }
+
+    private static double randomX(Properties gameProps, Random random) {
+        return random.nextDouble() * Integer.parseInt(gameProps.getProperty("window.width"));
+    }
+
+    private static double randomY(Properties gameProps, Random random) {
+        return random.nextDouble() * Integer.parseInt(gameProps.getProperty("window.height"));
+    }
+}
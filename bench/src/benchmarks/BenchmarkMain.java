@@ -0,0 +1,21 @@
+package benchmarks;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the benchmarks with the GC profiler switched on, so every result also reports
+ * the bytes allocated per operation. Takes the usual JMH command line.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] withProfiler = new String[args.length + 2];
+        withProfiler[0] = "-prof";
+        withProfiler[1] = "gc";
+        System.arraycopy(args, 0, withProfiler, 2, args.length);
+        Main.main(withProfiler);
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the bullet phase of a Level 2 tick: bullets against Donkey Kong, monkeys and platforms.
+ *
+ * Bullets kill the monkeys they hit, so every measured call gets a freshly loaded level with
+ * {@code entities} monkeys and as many bullets in flight. Loading those levels is not timed,
+ * but the GC profiler still counts what it allocates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulletCollisionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int entities;
+
+    private Supplier<Runnable> levels;
+    private Runnable bulletPhase;
+
+    @Setup(Level.Trial)
+    public void setUpLevels() throws ReflectiveOperationException {
+        levels = Fixtures.call("bulletCollisions", entities);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpLevel() {
+        bulletPhase = levels.get();
+    }
+
+    @Benchmark
+    public void bulletCollisions() {
+        bulletPhase.run();
+    }
+}
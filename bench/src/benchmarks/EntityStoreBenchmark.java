@@ -0,0 +1,61 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares one tick of gravity over many barrels kept as separate objects against the same
+ * tick run as a single sweep over an {@code EntityStore}.
+ *
+ * Run with {@code -prof perfnorm} on Linux to see the cache misses per tick next to the time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityStoreBenchmark {
+    private static final long SEED = 42;
+
+    @Param({"10000"})
+    public int count;
+
+    private Runnable perEntity;
+    private Runnable perEntityShuffled;
+    private Runnable entityStore;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        perEntity = Fixtures.call("gravityPerEntity", count, false, SEED);
+        perEntityShuffled = Fixtures.call("gravityPerEntity", count, true, SEED);
+        entityStore = Fixtures.call("gravityEntityStore", count, SEED);
+    }
+
+    @Benchmark
+    public void gravityPerEntity() {
+        perEntity.run();
+    }
+
+    @Benchmark
+    public void gravityPerEntityShuffled() {
+        perEntityShuffled.run();
+    }
+
+    @Benchmark
+    public void gravityEntityStore() {
+        entityStore.run();
+    }
+}
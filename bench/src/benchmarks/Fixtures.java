@@ -0,0 +1,41 @@
+package benchmarks;
+
+import java.lang.reflect.Method;
+
+/**
+ * Looks up the workloads built by {@code BenchmarkFixtures}, which lives in the default
+ * package with the game and so cannot be imported.
+ */
+final class Fixtures {
+    private static final String FIXTURES_CLASS = "BenchmarkFixtures";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Calls a static factory on {@code BenchmarkFixtures}.
+     *
+     * @param name the name of the factory method
+     * @param args the arguments, matched to the parameters by their primitive types
+     * @param <T>  the type of workload the factory returns
+     * @return the workload
+     * @throws ReflectiveOperationException if the factory cannot be found or fails
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T call(String name, Object... args) throws ReflectiveOperationException {
+        Class<?>[] types = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) {
+            types[i] = primitiveType(args[i].getClass());
+        }
+        Method factory = Class.forName(FIXTURES_CLASS).getMethod(name, types);
+        return (T) factory.invoke(null, args);
+    }
+
+    private static Class<?> primitiveType(Class<?> type) {
+        if (type == Integer.class) return int.class;
+        if (type == Long.class) return long.class;
+        if (type == Double.class) return double.class;
+        if (type == Boolean.class) return boolean.class;
+        return type;
+    }
+}
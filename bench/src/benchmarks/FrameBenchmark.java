@@ -0,0 +1,83 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the pieces of a Level 2 tick, and whole ticks, at different entity counts.
+ *
+ * {@code entities} is the number of barrels and of monkeys in the level; use
+ * {@code -p entities=...} to try other counts. {@code levelTickParallel} runs the entity
+ * update phases on one thread per core, and {@code levelFork} forks a running level and
+ * steps the copy once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int entities;
+
+    private Runnable gravityUpdate;
+    private Runnable monkeyMove;
+    private Runnable marioUpdateLevel2;
+    private Runnable levelTick;
+    private Runnable levelTickParallel;
+    private Runnable levelFork;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        gravityUpdate = Fixtures.call("gravityUpdate", entities);
+        monkeyMove = Fixtures.call("monkeyMove", entities);
+        marioUpdateLevel2 = Fixtures.call("marioUpdateLevel2", entities);
+        levelTick = Fixtures.call("levelTick", entities);
+        levelTickParallel = Fixtures.call("levelTick", entities, Runtime.getRuntime().availableProcessors());
+        levelFork = Fixtures.call("levelFork", entities);
+    }
+
+    @Benchmark
+    public void gravityUpdate() {
+        gravityUpdate.run();
+    }
+
+    @Benchmark
+    public void monkeyMove() {
+        monkeyMove.run();
+    }
+
+    @Benchmark
+    public void marioUpdateLevel2() {
+        marioUpdateLevel2.run();
+    }
+
+    @Benchmark
+    public void levelTick() {
+        levelTick.run();
+    }
+
+    @Benchmark
+    public void levelTickParallel() {
+        levelTickParallel.run();
+    }
+
+    @Benchmark
+    public void levelFork() {
+        levelFork.run();
+    }
+}
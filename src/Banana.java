@@ -1,5 +1,3 @@
-import bagel.Image;
-
 /**
  * Represents a banana projectile shot by an IntelligentMonkey.
  *
@@ -8,19 +6,30 @@ import bagel.Image;
  * Implements {@link Movable} for integration into the game’s movement loop.
  *
  */
-public class Banana extends GameEntity implements Movable{
-    private static final Image BANANA_IMAGE = new Image("res/banana.png");
+public class Banana extends Projectile {
+    private static final Sprite BANANA_SPRITE = SpriteCache.acquire("res/banana.png");
     private final static double SPEED = 1.8;
     private final static int TRAVEL_MAX = 300;
+    /** The number of ticks a banana stays in flight. */
+    public static final int FLIGHT_TICKS = (int) Math.ceil(TRAVEL_MAX / SPEED);
 
-    private double distanceTraveled = 0;
-    private boolean active = true;
-    private final boolean goingRight;
-
-    public Banana(double x, double y, boolean goingRight) {
-        super(BANANA_IMAGE, x, y);
-        this.goingRight = goingRight;
+    /**
+     * Constructs a banana that waits in a {@link ProjectilePool} until it is shot.
+     *
+     * @param store the store the banana's state is added to
+     */
+    public Banana(EntityStore store) {
+        super(store, BANANA_SPRITE);
+    }
 
+    /**
+     * Constructs a copy of a banana, for a copy of its pool.
+     *
+     * @param source the banana to copy
+     * @param store  a copy of the store holding the source's state
+     */
+    public Banana(Banana source, EntityStore store) {
+        super(source, store);
     }
 
     /**
@@ -28,24 +37,60 @@ public class Banana extends GameEntity implements Movable{
      * Marks the banana inactive if it has reached its maximum travel distance.
      */
     public void move() {
-        double absDistance = goingRight ? SPEED : -SPEED;
-        setX(getX() + absDistance);
-        distanceTraveled += Math.abs(absDistance);
-        if (distanceTraveled >= TRAVEL_MAX) {
-            active = false;
+        advance(SPEED);
+        if (getDistanceTraveled() >= TRAVEL_MAX) {
+            land();
         }
 
     }
 
     /**
-     * Updates the banana by moving it and rendering it if still active.
+     * Updates the banana by moving it if still active.
      */
     public void update() {
-        if (!active) {
+        if (!isInFlight()) {
             return;
         }
         move();
-        draw();
+    }
+
+    /**
+     * Moves the banana one step if still active, without landing it at the end of its range.
+     * Together with {@link #landIfSpent()} this does the same as {@link #update()}, but only
+     * changes the banana's own position, so bananas can be advanced from several threads.
+     */
+    public void advance() {
+        if (isInFlight()) {
+            advance(SPEED);
+        }
+    }
+
+    /**
+     * Marks the banana inactive if it is still active and has reached its maximum travel distance.
+     */
+    public void landIfSpent() {
+        if (isInFlight() && getDistanceTraveled() >= TRAVEL_MAX) {
+            land();
+        }
+    }
+
+    /**
+     * Returns how far the banana moves each tick.
+     * @return the speed, in pixels per tick
+     */
+    @Override
+    protected double getSpeed() {
+        return SPEED;
+    }
+
+    /**
+     * Renders the banana if still active.
+     */
+    @Override
+    public void draw(SpriteBatch batch) {
+        if (isInFlight()) {
+            super.draw(batch);
+        }
     }
 
     /**
@@ -54,7 +99,7 @@ public class Banana extends GameEntity implements Movable{
      * @return true if the banana is active; false otherwise
      */
     public boolean isActive() {
-        return active;
+        return isInFlight();
     }
 
     /**
@@ -65,9 +110,9 @@ public class Banana extends GameEntity implements Movable{
      */
     @Override
     public void changeState(GameEntity other) {
-        if (other instanceof Mario & active) {
-            active = false;
-            System.out.println("Banana hit Mario, game over!");
+        if (other instanceof Mario & isInFlight()) {
+            land();
+            GameLog.log(GameEvent.BANANA_HIT_MARIO);
         }
     }
 }
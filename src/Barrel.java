@@ -1,13 +1,10 @@
-import bagel.*;
-
 /**
  * Represents a barrel in the game, affected by gravity and platform collisions.
  * The barrel can be destroyed, at which point it will no longer be drawn or interact with the environment.
  */
 public class Barrel extends GravityEntity {
-    private static final Image BARREL_IMAGE = new Image("res/barrel.png");
+    private static final Sprite BARREL_SPRITE = SpriteCache.acquire("res/barrel.png");
     private static final double BARREL_GRAVITY = 0.4;
-    private boolean isDestroyed = false;
 
     /**
      * Constructs a new Barrel at the specified starting position.
@@ -16,29 +13,60 @@ public class Barrel extends GravityEntity {
      * @param y The initial y-coordinate of the barrel.
      */
     public Barrel(double x, double y) {
-        super(BARREL_IMAGE, x, y, BARREL_GRAVITY);
+        super(BARREL_SPRITE, x, y, BARREL_GRAVITY);
+    }
+
+    /**
+     * Constructs a new Barrel whose state is kept in a shared store.
+     *
+     * @param store The store the barrel's state is added to.
+     * @param x The initial x-coordinate of the barrel.
+     * @param y The initial y-coordinate of the barrel.
+     */
+    public Barrel(EntityStore store, double x, double y) {
+        super(store, BARREL_SPRITE, x, y, BARREL_GRAVITY);
     }
 
     /**
-     * Updates the barrel's position, applies gravity, checks for platform collisions,
-     * and renders the barrel if it is not destroyed.
+     * Constructs a copy of a barrel, for a copy of a level.
      *
-     * @param platforms An array of platforms for collision detection.
+     * @param source The barrel to copy.
+     * @param store A copy of the store holding the source's state.
+     */
+    public Barrel(Barrel source, EntityStore store) {
+        super(source, store);
+    }
+
+    /**
+     * Updates the barrel's position, applies gravity and checks for platform collisions
+     * if it is not destroyed.
+     *
+     * @param platforms The index of platforms for collision detection.
      */
     @Override
-    public void update(Platform[] platforms) {
-        if (!isDestroyed) {
+    public void update(PlatformIndex platforms) {
+        if (!isDestroyed()) {
             super.update(platforms);
         }
     }
 
+    /**
+     * Renders the barrel if it is not destroyed.
+     */
+    @Override
+    public void draw(SpriteBatch batch) {
+        if (!isDestroyed()) {
+            super.draw(batch);
+        }
+    }
+
     /**
      * Checks if the barrel has been destroyed.
      *
      * @return {@code true} if the barrel is destroyed, {@code false} otherwise.
      */
     public boolean isDestroyed() {
-        return isDestroyed;
+        return !getStore().isLive(getSlot());
     }
 
 
@@ -55,12 +83,12 @@ public class Barrel extends GravityEntity {
         if (other instanceof Mario) {
             Mario mario = (Mario) other;
             if (mario.holdHammer()) {
-                isDestroyed = true;
+                getStore().setLive(getSlot(), false);
                 // Barrel disappears
-                System.out.println("Mario smashed barrel with hammer!");
+                GameLog.log(GameEvent.BARREL_SMASHED);
             } else {
                 // trigger game over
-                System.out.println("Mario hit by barrel! Game Over!");
+                GameLog.log(GameEvent.BARREL_HIT_MARIO);
 
             }
         }
@@ -0,0 +1,260 @@
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs many independent Level 2 simulations in parallel, without a window.
+ *
+ * Each session owns its own {@link Level2Simulation} and {@link InputSource}, so sessions
+ * share nothing but the read-only {@link LevelDefinition} and sprite sizes. Sessions are split
+ * across a work-stealing {@link ForkJoinPool} and every session writes its result into
+ * its own slot, so no locking is needed.
+ *
+ * Usage: {@code BatchRunner [sessions] [threads] [seed]}
+ */
+public class BatchRunner {
+    private static final int DEFAULT_SESSIONS = 1000;
+    private static final long DEFAULT_SEED = 1;
+
+    private final LevelDefinition LEVEL2;
+    private final int sessions;
+    private final int parallelism;
+    private final long seed;
+
+    /**
+     * Constructs a batch of Level 2 sessions.
+     *
+     * @param gameProps   Properties file containing game settings.
+     * @param sessions    the number of sessions to simulate
+     * @param parallelism the number of worker threads
+     * @param seed        the seed the per-session input seeds are derived from
+     * @throws IllegalArgumentException if {@code sessions} is less than 1
+     */
+    public BatchRunner(Properties gameProps, int sessions, int parallelism, long seed) {
+        if (sessions < 1) {
+            throw new IllegalArgumentException("A batch needs at least one session, got " + sessions);
+        }
+        this.LEVEL2 = LevelDefinition.compile(gameProps, 2);
+        this.sessions = sessions;
+        this.parallelism = parallelism;
+        this.seed = seed;
+    }
+
+    /**
+     * Simulates every session to the end of its level.
+     *
+     * @return the aggregated results of the batch
+     */
+    public BatchResult run() {
+        SessionResult[] results = new SessionResult[sessions];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            pool.invoke(new SessionRange(results, 0, sessions));
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new BatchResult(results, elapsed);
+    }
+
+    /**
+     * Creates the input source for one session.
+     * Sessions are seeded independently, so results do not depend on scheduling.
+     *
+     * @param session the index of the session
+     * @return the input source driving that session
+     */
+    protected InputSource createInputSource(int session) {
+        return new RandomPlayer(seed * 31 + session);
+    }
+
+    /**
+     * Simulates a single session until its level ends.
+     *
+     * @param session the index of the session
+     * @return the outcome of the session
+     */
+    private SessionResult runSession(int session) {
+        Level2Simulation level = new Level2Simulation(LEVEL2, 0);
+        InputSource input = createInputSource(session);
+        boolean isFinished = false;
+        while (!isFinished) {
+            isFinished = level.step(input.next());
+        }
+        boolean isWon = level.isPlayerWon();
+        boolean isLost = level.isGameOver();
+        return new SessionResult(level.getCurrFrame(), level.getScore(), level.getSecondsLeft(), isWon && !isLost);
+    }
+
+    /**
+     * Recursively splits a range of sessions until each task runs a single session.
+     */
+    private class SessionRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SessionResult[] results;
+        private final int from;
+        private final int to;
+
+        SessionRange(SessionResult[] results, int from, int to) {
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 0) {
+                return;
+            }
+            if (to - from == 1) {
+                results[from] = runSession(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SessionRange(results, from, mid), new SessionRange(results, mid, to));
+        }
+    }
+
+    /**
+     * The outcome of a single simulated session.
+     */
+    public static class SessionResult {
+        private final int ticks;
+        private final int score;
+        private final int secondsLeft;
+        private final boolean isWon;
+
+        SessionResult(int ticks, int score, int secondsLeft, boolean isWon) {
+            this.ticks = ticks;
+            this.score = score;
+            this.secondsLeft = secondsLeft;
+            this.isWon = isWon;
+        }
+
+        /** @return the number of ticks the session ran for */
+        public int getTicks() { return ticks; }
+
+        /** @return the score at the end of the session */
+        public int getScore() { return score; }
+
+        /** @return the seconds left on the timer at the end of the session */
+        public int getSecondsLeft() { return secondsLeft; }
+
+        /** @return {@code true} if the player won the level */
+        public boolean isWon() { return isWon; }
+    }
+
+    /**
+     * The aggregated outcome of a batch.
+     */
+    public static class BatchResult {
+        private final SessionResult[] sessions;
+        private final long elapsedNanos;
+        private final long totalTicks;
+        private final int wins;
+
+        BatchResult(SessionResult[] sessions, long elapsedNanos) {
+            this.sessions = sessions;
+            this.elapsedNanos = elapsedNanos;
+            long ticks = 0;
+            int wins = 0;
+            for (SessionResult session : sessions) {
+                ticks += session.getTicks();
+                if (session.isWon()) {
+                    wins++;
+                }
+            }
+            this.totalTicks = ticks;
+            this.wins = wins;
+        }
+
+        /**
+         * Returns the result of one session.
+         * @param index the index of the session
+         * @return the session's result
+         */
+        public SessionResult getSession(int index) { return sessions[index]; }
+
+        /** @return the number of sessions in the batch */
+        public int getSessionCount() { return sessions.length; }
+
+        /** @return the number of ticks simulated across all sessions */
+        public long getTotalTicks() { return totalTicks; }
+
+        /** @return the number of sessions the player won */
+        public int getWins() { return wins; }
+
+        /** @return the wall-clock time the batch took, in nanoseconds */
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        /** @return the aggregate simulation throughput in ticks per second */
+        public double getTicksPerSecond() {
+            return totalTicks / (elapsedNanos / 1e9);
+        }
+    }
+
+    /**
+     * A bot that holds a random direction for a random number of ticks,
+     * jumping and shooting now and then.
+     */
+    private static class RandomPlayer implements InputSource {
+        private static final int[] HELD_KEYS = {
+                0,
+                FrameInput.LEFT,
+                FrameInput.RIGHT,
+                FrameInput.UP,
+                FrameInput.DOWN,
+                FrameInput.RIGHT | FrameInput.UP,
+                FrameInput.LEFT | FrameInput.DOWN
+        };
+        private static final int MIN_HOLD = 10;
+        private static final int MAX_HOLD = 70;
+        private static final int JUMP_CHANCE = 25;
+        private static final int SHOOT_CHANCE = 30;
+
+        private final SplittableRandom random;
+        private int held = 0;
+        private int holdLeft = 0;
+
+        RandomPlayer(long seed) {
+            this.random = new SplittableRandom(seed);
+        }
+
+        @Override
+        public FrameInput next() {
+            if (holdLeft-- <= 0) {
+                held = HELD_KEYS[random.nextInt(HELD_KEYS.length)];
+                holdLeft = random.nextInt(MIN_HOLD, MAX_HOLD);
+            }
+            int bits = held;
+            if (random.nextInt(JUMP_CHANCE) == 0) bits |= FrameInput.JUMP;
+            if (random.nextInt(SHOOT_CHANCE) == 0) bits |= FrameInput.SHOOT;
+            return FrameInput.of(bits);
+        }
+    }
+
+    /**
+     * Loads the game properties, runs a batch and prints its throughput.
+     *
+     * @param args optional session count, thread count and seed
+     */
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SESSIONS;
+        if (sessions < 1) {
+            System.err.println("BatchRunner: the session count must be at least 1, got " + sessions);
+            System.exit(1);
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+
+        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+        BatchResult result = new BatchRunner(gameProps, sessions, threads, seed).run();
+
+        System.out.printf("Simulated %d sessions on %d threads: %d ticks in %.2f s (%.0f ticks/s), %d won%n",
+                result.getSessionCount(), threads, result.getTotalTicks(),
+                result.getElapsedNanos() / 1e9, result.getTicksPerSecond(), result.getWins());
+    }
+}
@@ -1,5 +1,6 @@
-import bagel.Image;
-
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 
 /**
  * Represents a blaster collectible in the game.
@@ -11,25 +12,37 @@ import bagel.Image;
  */
 
 public class Blaster extends GameEntity implements Collectable {
-    private static final Image BLASTER_IMAGE = new Image("res/blaster.png");
+    private static final Sprite BLASTER_SPRITE = SpriteCache.acquire("res/blaster.png");
     private boolean isCollected = false;
     private boolean isFacingRight;
 
 
     public Blaster(double x, double y, boolean isFacingRight){
-        super(BLASTER_IMAGE, x, y);
+        super(BLASTER_SPRITE, x, y);
         this.isFacingRight = isFacingRight;
     }
 
+    /**
+     * Constructs a copy of a blaster, for a copy of a level.
+     *
+     * @param source the blaster to copy
+     */
+    public Blaster(Blaster source) {
+        super(source, source.getStore().copy());
+        this.isCollected = source.isCollected;
+        this.isFacingRight = source.isFacingRight;
+    }
+
     /**
      * Renders the blaster on screen if it has not yet been collected.
      *
-     * This method should be called once per frame in the game loop.
+     * This method should be called once per frame by the renderer.
      *
      */
-    public void update(){
+    @Override
+    public void draw(SpriteBatch batch) {
         if(!isCollected) {
-            super.draw();
+            super.draw(batch);
         }
     }
 
@@ -49,6 +62,18 @@ public class Blaster extends GameEntity implements Collectable {
         return isCollected;
     }
 
+    @Override
+    public void writeState(DataOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeBoolean(isCollected);
+    }
+
+    @Override
+    public void readState(DataInputStream in) throws IOException {
+        super.readState(in);
+        isCollected = in.readBoolean();
+    }
+
     /**
      * Handles collision events with other game entities.
      * When Mario collides with an uncollected blaster, this method marks
@@ -59,7 +84,7 @@ public class Blaster extends GameEntity implements Collectable {
     public void changeState(GameEntity other) {
         if (other instanceof Mario && !isCollected) {
             isCollected = true;
-            System.out.println("blaster collected by mario and disappeared.");
+            GameLog.log(GameEvent.BLASTER_DISAPPEARED);
         }
     }
 }
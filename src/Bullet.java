@@ -1,6 +1,3 @@
-import bagel.*;
-
-
 /**
  * A projectile fired by Mario when he has a blaster.
  *
@@ -9,20 +6,29 @@ import bagel.*;
  * and implement the {@link Movable} interface for integration into the game loop.
  *
  */
-public class Bullet extends GameEntity implements Movable {
+public class Bullet extends Projectile {
     private static final double SPEED = 3.8;
     private static final int MAX_DISTANCE = 300;
-    private static final Image BULLET_LEFT_IMAGE = new Image("res/bullet_left.png");
-    private final Image BULLET_RIGHT_IMAGE = new Image("res/bullet_right.png");
-
-    private double traveled = 0;
-    private boolean isAlive = true;
-    private boolean isFacingRight;
+    private static final Sprite BULLET_LEFT_SPRITE = SpriteCache.acquire("res/bullet_left.png");
+    private static final Sprite BULLET_RIGHT_SPRITE = SpriteCache.acquire("res/bullet_right.png");
 
+    /**
+     * Constructs a bullet that waits in a {@link ProjectilePool} until it is fired.
+     *
+     * @param store the store the bullet's state is added to
+     */
+    public Bullet(EntityStore store) {
+        super(store, BULLET_LEFT_SPRITE);
+    }
 
-    public Bullet(double x, double y, boolean isFacingRight) {
-        super(BULLET_LEFT_IMAGE, x, y);
-        this.isFacingRight = isFacingRight;
+    /**
+     * Constructs a copy of a bullet, for a copy of its pool.
+     *
+     * @param source the bullet to copy
+     * @param store  a copy of the store holding the source's state
+     */
+    public Bullet(Bullet source, EntityStore store) {
+        super(source, store);
     }
 
     /**
@@ -30,34 +36,31 @@ public class Bullet extends GameEntity implements Movable {
      * The bullet becomes inactive once it has traveled its maximum distance.
      */
     public void move() {
-        if (isAlive && traveled < MAX_DISTANCE) {
-            double dx = isFacingRight ? SPEED : -SPEED;
-            setX(getX() + dx);
-            traveled += Math.abs(dx);
+        if (isInFlight() && getDistanceTraveled() < MAX_DISTANCE) {
+            advance(SPEED);
         } else {
-            isAlive = false;
+            land();
         }
     }
 
     /**
-     * Updates the bullet's position and renders it if still alive.
+     * Updates the bullet's position while it is still alive.
      * This method should be called once per frame.
      */
     public void update() {
         move();
-        draw();
     }
 
     /**
-     * Draws the bullet's current image at its position if it is still active.
+     * Draws the bullet's current sprite at its position if it is still active.
      * Chooses the left- or right-facing sprite based on its direction.
      */
-    public void draw() {
-        if (isAlive) {
-            if (isFacingRight) {
-                BULLET_RIGHT_IMAGE.draw(getX(), getY());
+    public void draw(SpriteBatch batch) {
+        if (isInFlight()) {
+            if (isFacingRight()) {
+                batch.draw(BULLET_RIGHT_SPRITE, getX(), getY());
             } else {
-                BULLET_LEFT_IMAGE.draw(getX(), getY());
+                batch.draw(BULLET_LEFT_SPRITE, getX(), getY());
             }
         }
     }
@@ -67,7 +70,16 @@ public class Bullet extends GameEntity implements Movable {
      * @return True if the bullet is alive; false otherwise.
      */
     public boolean isAlive() {
-        return isAlive;
+        return isInFlight();
+    }
+
+    /**
+     * Returns how far the bullet moves each tick.
+     * @return the speed, in pixels per tick
+     */
+    @Override
+    protected double getSpeed() {
+        return SPEED;
     }
 
     /**
@@ -79,14 +91,14 @@ public class Bullet extends GameEntity implements Movable {
     @Override
     public void changeState(GameEntity other) {
         if (other instanceof Monkey) {
-            isAlive = false;
-            System.out.println("Bullet hit Monkey and disappeared!");
+            land();
+            GameLog.log(GameEvent.BULLET_HIT_MONKEY);
         }else {
             if (other instanceof Platform){
-                isAlive = false;
-                System.out.println("Bullet hit Platform and disappeared!");
+                land();
+                GameLog.log(GameEvent.BULLET_HIT_PLATFORM);
             }
         }
     }
 
-}
\ No newline at end of file
+}
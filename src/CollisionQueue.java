@@ -0,0 +1,115 @@
+import java.util.Arrays;
+
+/**
+ * A reusable first-in, first-out ring buffer of collision events.
+ *
+ * A collision pass tests each pair of entities once and adds an event for every hit; a
+ * separate step then takes the events out in the same order and applies their effects.
+ * Each event is a type and the indices of the two entities involved, kept in parallel
+ * primitive arrays, so once the buffer has grown to fit a level it does not allocate.
+ */
+public class CollisionQueue {
+    /** A bullet hit Donkey Kong; the second index is unused. */
+    public static final int BULLET_DONKEY = 0;
+    /** A bullet overlaps a live monkey; the second index is the monkey's. */
+    public static final int BULLET_MONKEY = 1;
+    /** A bullet hit a platform; the second index is the platform's. */
+    public static final int BULLET_PLATFORM = 2;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] types = new int[INITIAL_CAPACITY];
+    private int[] firsts = new int[INITIAL_CAPACITY];
+    private int[] seconds = new int[INITIAL_CAPACITY];
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * Adds an event at the end of the queue, growing the buffer if it is full.
+     *
+     * @param type   the type of collision
+     * @param first  the index of the first entity
+     * @param second the index of the second entity
+     */
+    public void add(int type, int first, int second) {
+        if (size == types.length) {
+            grow();
+        }
+        int tail = (head + size) & (types.length - 1);
+        types[tail] = type;
+        firsts[tail] = first;
+        seconds[tail] = second;
+        size++;
+    }
+
+    /**
+     * Returns whether the queue holds no events.
+     * @return {@code true} if the queue is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of events in the queue.
+     * @return the number of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the type of the oldest event. The queue must not be empty.
+     * @return the type of collision
+     */
+    public int peekType() {
+        return types[head];
+    }
+
+    /**
+     * Returns the index of the first entity of the oldest event. The queue must not be empty.
+     * @return the index of the first entity
+     */
+    public int peekFirst() {
+        return firsts[head];
+    }
+
+    /**
+     * Returns the index of the second entity of the oldest event. The queue must not be empty.
+     * @return the index of the second entity
+     */
+    public int peekSecond() {
+        return seconds[head];
+    }
+
+    /**
+     * Removes the oldest event. The queue must not be empty.
+     */
+    public void remove() {
+        head = (head + 1) & (types.length - 1);
+        size--;
+    }
+
+    /**
+     * Removes every event.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        // Unwrap the events to the front, so the doubled buffer keeps them in order
+        int capacity = types.length * 2;
+        types = unwrap(types, capacity);
+        firsts = unwrap(firsts, capacity);
+        seconds = unwrap(seconds, capacity);
+        head = 0;
+    }
+
+    private int[] unwrap(int[] ring, int capacity) {
+        int[] grown = Arrays.copyOfRange(ring, head, head + capacity);
+        System.arraycopy(ring, 0, grown, ring.length - head, head);
+        return grown;
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * How far Mario has to travel from each spot of a level to reach a target, walking along
+ * platforms, climbing ladders and dropping off edges.
+ *
+ * The play area is cut into square cells by the position of Mario's feet. Cells on top of a
+ * platform or within a ladder are the spots Mario can stay in; walking moves him sideways
+ * between them, ladders move him up and down, and walking off an edge drops him to the first
+ * spot below. The distance from every spot to the nearest one from which a jump would touch
+ * the target is found once, when the field is built, so looking it up is constant time.
+ *
+ * Distances are in pixels walked, with climbing weighted by how much slower it is. The field
+ * ignores barrels, monkeys and jumps over gaps, so it is a guide for a search, not a route.
+ */
+public class DistanceField {
+    /** The distance from a spot that cannot reach the target. */
+    public static final double UNREACHABLE = Double.POSITIVE_INFINITY;
+
+    private static final double CELL_SIZE = 8;
+    private static final double CLIMB_COST = 1.75;  // Mario climbs at 2 pixels a tick and walks at 3.5
+    private static final double DROP_COST = 0.25;   // Falling is quicker than walking the same distance
+
+    private final int columns;
+    private final int rows;
+    private final boolean[] isSpot;  // Whether Mario can stay in each cell
+    private final double[] distances;
+
+    /**
+     * Builds the field of a level towards a target. Platforms and ladders must be at rest.
+     *
+     * @param level  the level to build the field over; only its platforms, ladders and Mario's size are read
+     * @param target the entity to reach
+     */
+    public DistanceField(LevelSimulation level, GameEntity target) {
+        this.columns = (int) Math.ceil(level.getScreenWidth() / CELL_SIZE);
+        this.rows = rowOf(level.getScreenHeight()) + 1;
+        Mario mario = level.getMario();
+        double halfWidth = (mario.getRight() - mario.getLeft()) / 2;
+        double height = mario.getBottom() - mario.getTop();
+
+        // Mark the spots Mario can stay in: on a platform, at the bottom of the screen, or on a ladder
+        boolean[] standable = new boolean[columns * rows];
+        boolean[] climbable = new boolean[columns * rows];
+        for (int column = 0; column < columns; column++) {
+            double x = centreOf(column);
+            for (Platform platform : level.getPlatforms()) {
+                int row = rowOf(platform.getTop());
+                if (row >= 0 && row < rows
+                        && x + halfWidth >= platform.getLeft() && x - halfWidth <= platform.getRight()) {
+                    standable[cellOf(column, row)] = true;
+                }
+            }
+            standable[cellOf(column, rows - 1)] = true;
+            for (Ladder ladder : level.getLadders()) {
+                if (x > ladder.getLeft() && x < ladder.getRight()) {
+                    int top = Math.max(rowOf(ladder.getTop()), 0);
+                    int bottom = Math.min(rowOf(ladder.getBottom()), rows - 1);
+                    for (int row = top; row <= bottom; row++) {
+                        climbable[cellOf(column, row)] = true;
+                    }
+                }
+            }
+        }
+        this.isSpot = new boolean[columns * rows];
+        for (int cell = 0; cell < isSpot.length; cell++) {
+            isSpot[cell] = standable[cell] || climbable[cell];
+        }
+
+        // Search backwards from the spots that reach the target, over the moves into each spot
+        this.distances = new double[columns * rows];
+        Arrays.fill(distances, UNREACHABLE);
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        for (int column = 0; column < columns; column++) {
+            double x = centreOf(column);
+            for (int row = 0; row < rows; row++) {
+                int cell = cellOf(column, row);
+                double bottom = row * CELL_SIZE;
+                if (x + halfWidth + Mario.JUMP_DISTANCE >= target.getLeft()
+                        && x - halfWidth - Mario.JUMP_DISTANCE <= target.getRight()
+                        && bottom - height - Mario.JUMP_HEIGHT <= target.getBottom()
+                        && bottom >= target.getTop()) {
+                    // Mid-air cells count too, so a jump towards the target is not taken for a fall
+                    distances[cell] = 0;
+                    if (isSpot[cell]) {
+                        queue.add(new double[] {0, cell});
+                    }
+                }
+            }
+        }
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            int cell = (int) entry[1];
+            if (entry[0] > distances[cell]) {
+                continue;  // A shorter way here was already expanded
+            }
+            int column = cell % columns;
+            int row = cell / columns;
+            for (int side = -1; side <= 1; side += 2) {
+                int from = column + side;
+                if (from < 0 || from >= columns) {
+                    continue;
+                }
+                // Walking or stepping off a ladder sideways into this spot
+                int neighbour = cellOf(from, row);
+                if (isSpot[neighbour]) {
+                    relax(queue, neighbour, entry[0] + CELL_SIZE);
+                }
+                // Walking off an edge above this spot and dropping into it
+                for (int above = row - 1; above >= 0; above--) {
+                    if (isSpot[cellOf(column, above)]) {
+                        break;  // Anything higher lands there first
+                    }
+                    int edge = cellOf(from, above);
+                    if (isSpot[edge]) {
+                        relax(queue, edge, entry[0] + CELL_SIZE + (row - above) * CELL_SIZE * DROP_COST);
+                    }
+                }
+            }
+            // Climbing up or down a ladder into this spot
+            if (climbable[cell]) {
+                for (int side = -1; side <= 1; side += 2) {
+                    int from = row + side;
+                    if (from >= 0 && from < rows && climbable[cellOf(column, from)]) {
+                        relax(queue, cellOf(column, from), entry[0] + CELL_SIZE * CLIMB_COST);
+                    }
+                }
+            }
+        }
+    }
+
+    private void relax(PriorityQueue<double[]> queue, int cell, double distance) {
+        if (distance < distances[cell]) {
+            distances[cell] = distance;
+            queue.add(new double[] {distance, cell});
+        }
+    }
+
+    /**
+     * Returns how far Mario has to travel from where he is to reach the target.
+     * In mid-air and out of the target's reach, he is taken to be at the spot he would fall to.
+     *
+     * @param mario Mario
+     * @return the distance, or {@link #UNREACHABLE}
+     */
+    public double distanceFrom(Mario mario) {
+        return distanceFrom(mario.getX(), mario.getBottom());
+    }
+
+    /**
+     * Returns how far Mario has to travel from a position to reach the target.
+     * In mid-air and out of the target's reach, he is taken to be at the spot he would fall to.
+     *
+     * @param x      the x-coordinate of Mario's centre
+     * @param bottom the y-coordinate of Mario's feet
+     * @return the distance, or {@link #UNREACHABLE}
+     */
+    public double distanceFrom(double x, double bottom) {
+        int column = Math.min(Math.max((int) (x / CELL_SIZE), 0), columns - 1);
+        for (int row = Math.max(rowOf(bottom), 0); row < rows; row++) {
+            int cell = cellOf(column, row);
+            if (isSpot[cell] || distances[cell] == 0) {
+                return distances[cell];
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    private int cellOf(int column, int row) {
+        return row * columns + column;
+    }
+
+    private static int rowOf(double y) {
+        return (int) Math.floor(y / CELL_SIZE);
+    }
+
+    private static double centreOf(int column) {
+        return (column + 0.5) * CELL_SIZE;
+    }
+}
@@ -1,11 +1,13 @@
-import bagel.*;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 
 /**
  * Represents Donkey Kong in the game, affected by gravity and platform collisions.
  * The Donkey object moves downward due to gravity and lands on platforms when applicable.
  */
 public class Donkey extends GravityEntity {
-    private static final Image DONKEY_IMAGE = new Image("res/donkey_kong.png");
+    private static final Sprite DONKEY_SPRITE = SpriteCache.acquire("res/donkey_kong.png");
     private static final double DONKEY_GRAVITY = 0.4;
     private final int MAX_HEALTH = 5;
     private int health;
@@ -18,10 +20,20 @@ public class Donkey extends GravityEntity {
      * @param y The initial y-coordinate of Donkey.
      */
     public Donkey(double x, double y) {
-        super(DONKEY_IMAGE, x, y, DONKEY_GRAVITY);
+        super(DONKEY_SPRITE, x, y, DONKEY_GRAVITY);
         this.health = MAX_HEALTH;
     }
 
+    /**
+     * Constructs a copy of Donkey Kong, for a copy of a level.
+     *
+     * @param source the Donkey Kong to copy
+     */
+    public Donkey(Donkey source) {
+        super(source, source.getStore().copy());
+        this.health = source.health;
+    }
+
     /**
      * Returns Donkey Kong’s current health.
      * @return the remaining health points
@@ -30,6 +42,18 @@ public class Donkey extends GravityEntity {
         return health;
     }
 
+    @Override
+    public void writeState(DataOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeInt(health);
+    }
+
+    @Override
+    public void readState(DataInputStream in) throws IOException {
+        super.readState(in);
+        health = in.readInt();
+    }
+
 
     /**
      * Handles collisions with other entities.
@@ -42,10 +66,10 @@ public class Donkey extends GravityEntity {
     public void changeState(GameEntity other) {
         if (other instanceof Bullet) {
             health--;
-            System.out.println("Donkey hit by bullet! Health: " + health);
+            GameLog.log(GameEvent.DONKEY_HIT, health);
 
             if (health <= 0) {
-                System.out.println("Donkey defeated!");
+                GameLog.log(GameEvent.DONKEY_DEFEATED);
             }
         }
     }
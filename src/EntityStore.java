@@ -0,0 +1,482 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for the state of game entities.
+ *
+ * Each entity owns one slot, and its position, bounding box, vertical velocity, patrol
+ * progress and live flag are kept in parallel primitive arrays instead of in the entity
+ * object. The entity objects become thin views onto their slot. A level that puts its
+ * moving entities into one shared store can run the gravity pass as a single linear sweep
+ * over those arrays; an entity created without a store gets a private one-slot store.
+ *
+ * The bounding box of a slot is kept in step with its position, so collision tests read
+ * the edges directly.
+ *
+ * A slot whose gravity step leaves its position and velocity exactly as they were, e.g. a
+ * ladder resting on a platform, is put to sleep: every later step would do the same, so it is
+ * skipped until something moves the slot or changes its velocity, gravity or size, which
+ * wakes it. Platforms never move, so they cannot wake anything.
+ *
+ * {@link #copy()} makes a copy-on-write copy: the arrays are shared with the original and each
+ * group of them (positions and velocities, sizes and gravity, patrol progress, flags) is only
+ * copied when one of the two stores first writes to it.
+ */
+public class EntityStore {
+    private static final int MIN_CAPACITY = 1;
+
+    private double[] x;
+    private double[] y;
+    private double[] width;
+    private double[] height;
+    private double[] left;
+    private double[] right;
+    private double[] top;
+    private double[] bottom;
+    private double[] velocityY;
+    private double[] gravity;
+    private int[] routeIndex;
+    private long[] live;
+    private long[] asleep;
+    private int size = 0;
+
+    // Groups of arrays that may still be shared with another store, and must be copied before writing
+    private boolean sharesMotion = false;  // x, y, edges and velocityY
+    private boolean sharesShape = false;   // width, height and gravity
+    private boolean sharesRoute = false;   // routeIndex
+    private boolean sharesFlags = false;   // live and asleep
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param capacity the number of slots to reserve; the store grows past it if needed
+     */
+    public EntityStore(int capacity) {
+        int slots = Math.max(MIN_CAPACITY, capacity);
+        x = new double[slots];
+        y = new double[slots];
+        width = new double[slots];
+        height = new double[slots];
+        left = new double[slots];
+        right = new double[slots];
+        top = new double[slots];
+        bottom = new double[slots];
+        velocityY = new double[slots];
+        gravity = new double[slots];
+        routeIndex = new int[slots];
+        live = new long[(slots + 63) >>> 6];
+        asleep = new long[live.length];
+    }
+
+    /**
+     * Returns a copy-on-write copy of this store. Copying takes constant time; afterwards
+     * each store copies a group of arrays the first time it writes to it, so groups that
+     * neither store changes, such as the sizes, stay shared.
+     *
+     * A store whose arrays may still be shared must not be written from several threads
+     * until {@link #ensureWritable()} has been called.
+     *
+     * @return a store with the same slots and state
+     */
+    public EntityStore copy() {
+        EntityStore copy = new EntityStore(this);
+        sharesMotion = true;
+        sharesShape = true;
+        sharesRoute = true;
+        sharesFlags = true;
+        return copy;
+    }
+
+    private EntityStore(EntityStore source) {
+        x = source.x;
+        y = source.y;
+        width = source.width;
+        height = source.height;
+        left = source.left;
+        right = source.right;
+        top = source.top;
+        bottom = source.bottom;
+        velocityY = source.velocityY;
+        gravity = source.gravity;
+        routeIndex = source.routeIndex;
+        live = source.live;
+        asleep = source.asleep;
+        size = source.size;
+        sharesMotion = true;
+        sharesShape = true;
+        sharesRoute = true;
+        sharesFlags = true;
+    }
+
+    /**
+     * Copies every shared group of arrays that gravity, movement and projectiles write to,
+     * so that they can be updated from several threads.
+     */
+    public void ensureWritable() {
+        ownMotion();
+        ownRoute();
+        ownFlags();
+    }
+
+    /**
+     * Adds a live entity to the store.
+     *
+     * @param x      the x-coordinate of the entity's centre
+     * @param y      the y-coordinate of the entity's centre
+     * @param width  the width of the entity's bounding box
+     * @param height the height of the entity's bounding box
+     * @return the slot of the new entity
+     */
+    public int add(double x, double y, double width, double height) {
+        if (size == this.x.length) {
+            grow();
+        }
+        int slot = size++;
+        ownShape();
+        this.width[slot] = width;
+        this.height[slot] = height;
+        setX(slot, x);
+        setY(slot, y);
+        setLive(slot, true);
+        return slot;
+    }
+
+    /**
+     * Returns the number of slots in use.
+     * @return the number of entities in the store
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Applies one tick of gravity to every live slot in the given range, in slot order.
+     * Sleeping slots are skipped without being looked at.
+     *
+     * Each entity falls by its own gravity, capped at {@link GravityEntity#TERMINAL_VELOCITY},
+     * and lands on the first platform it then touches.
+     *
+     * @param from      the first slot to update
+     * @param to        the slot after the last one to update
+     * @param platforms the platforms to land on
+     */
+    public void applyGravity(int from, int to, PlatformIndex platforms) {
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        for (int word = firstWord; word <= lastWord; word++) {
+            long awake = live[word] & ~asleep[word];
+            if (word == firstWord) {
+                awake &= -1L << from;
+            }
+            if (word == lastWord) {
+                awake &= -1L >>> (63 - ((to - 1) & 63));
+            }
+            while (awake != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(awake);
+                awake &= awake - 1;
+                fall(slot, platforms);
+            }
+        }
+    }
+
+    /**
+     * Applies one tick of gravity to a single slot, whether or not it is live, unless it is asleep.
+     *
+     * @param slot      the slot to update
+     * @param platforms the platforms to land on
+     */
+    public void applyGravity(int slot, PlatformIndex platforms) {
+        if (!isAsleep(slot)) {
+            fall(slot, platforms);
+        }
+    }
+
+    private void fall(int slot, PlatformIndex platforms) {
+        ownMotion();
+        double oldY = y[slot];
+        double oldBottom = bottom[slot];
+        double oldVelocityY = velocityY[slot];
+
+        // 1) Apply gravity to vertical velocity (capped at terminal velocity)
+        velocityY[slot] = Math.min(velocityY[slot] + gravity[slot], GravityEntity.TERMINAL_VELOCITY);
+
+        // 2) Move vertically
+        moveY(slot, y[slot] + velocityY[slot]);
+
+        // 3) If we hit a platform, snap to its top and zero out velocity
+        int landing = platforms.firstIntersecting(left[slot], top[slot], right[slot], bottom[slot]);
+        if (landing < 0 && bottom[slot] > oldBottom) {
+            // A fall longer than a platform is thick can pass right through it, so also land
+            // on the first platform whose top the entity's feet went past on the way down
+            landing = platforms.firstTopBetween(left[slot], right[slot], oldBottom, bottom[slot]);
+        }
+        if (landing >= 0) {
+            moveY(slot, platforms.get(landing).getTop() - height[slot] / 2.0);
+            velocityY[slot] = 0;
+        }
+
+        // 4) Nothing changed, so every following tick would end the same way
+        if (y[slot] == oldY && velocityY[slot] == 0 && oldVelocityY == 0) {
+            ownFlags();
+            asleep[slot >>> 6] |= 1L << slot;
+        }
+    }
+
+    /**
+     * Tests whether a slot's bounding box intersects the given area.
+     * Edges that touch count as an intersection.
+     *
+     * @param slot   the slot to test
+     * @param left   the left edge of the area
+     * @param top    the top edge of the area
+     * @param right  the right edge of the area
+     * @param bottom the bottom edge of the area
+     * @return {@code true} if the bounding box intersects the area; {@code false} otherwise
+     */
+    public boolean intersects(int slot, double left, double top, double right, double bottom) {
+        return !(right < this.left[slot] || left > this.right[slot]
+                || bottom < this.top[slot] || top > this.bottom[slot]);
+    }
+
+    public double getX(int slot) { return x[slot]; }
+
+    public double getY(int slot) { return y[slot]; }
+
+    public double getLeft(int slot) { return left[slot]; }
+
+    public double getRight(int slot) { return right[slot]; }
+
+    public double getTop(int slot) { return top[slot]; }
+
+    public double getBottom(int slot) { return bottom[slot]; }
+
+    public double getVelocityY(int slot) { return velocityY[slot]; }
+
+    public int getRouteIndex(int slot) { return routeIndex[slot]; }
+
+    public void setVelocityY(int slot, double velocityY) {
+        ownMotion();
+        this.velocityY[slot] = velocityY;
+        wake(slot);
+    }
+
+    public void setGravity(int slot, double gravity) {
+        ownShape();
+        this.gravity[slot] = gravity;
+        wake(slot);
+    }
+
+    public void setRouteIndex(int slot, int routeIndex) {
+        ownRoute();
+        this.routeIndex[slot] = routeIndex;
+    }
+
+    /**
+     * Moves a slot horizontally and updates its bounding box.
+     *
+     * @param slot the slot to move
+     * @param x    the new x-coordinate of its centre
+     */
+    public void setX(int slot, double x) {
+        // Same arithmetic as Image.getBoundingBoxAt, so collisions are unchanged to the last bit
+        ownMotion();
+        this.x[slot] = x;
+        left[slot] = x - width[slot] / 2;
+        right[slot] = left[slot] + width[slot];
+        wake(slot);
+    }
+
+    /**
+     * Moves a slot vertically and updates its bounding box.
+     *
+     * @param slot the slot to move
+     * @param y    the new y-coordinate of its centre
+     */
+    public void setY(int slot, double y) {
+        moveY(slot, y);
+        wake(slot);
+    }
+
+    private void moveY(int slot, double y) {
+        ownMotion();
+        this.y[slot] = y;
+        top[slot] = y - height[slot] / 2;
+        bottom[slot] = top[slot] + height[slot];
+    }
+
+    /**
+     * Resizes a slot's bounding box around its current centre.
+     *
+     * @param slot   the slot to resize
+     * @param width  the new width
+     * @param height the new height
+     */
+    public void setSize(int slot, double width, double height) {
+        ownShape();
+        this.width[slot] = width;
+        this.height[slot] = height;
+        setX(slot, x[slot]);
+        setY(slot, y[slot]);
+    }
+
+    /**
+     * Returns whether a slot is live. What that means is up to the entity:
+     * a barrel that is not destroyed, a monkey that is alive, a projectile in flight.
+     *
+     * @param slot the slot to check
+     * @return {@code true} if the slot is live
+     */
+    public boolean isLive(int slot) {
+        return (live[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Marks a slot as live or not.
+     *
+     * @param slot   the slot to mark
+     * @param isLive whether the slot is live
+     */
+    public void setLive(int slot, boolean isLive) {
+        ownFlags();
+        if (isLive) {
+            live[slot >>> 6] |= 1L << slot;
+        } else {
+            live[slot >>> 6] &= ~(1L << slot);
+        }
+        wake(slot);
+    }
+
+    /**
+     * Returns whether a slot is asleep, i.e. resting where gravity leaves it unchanged.
+     *
+     * @param slot the slot to check
+     * @return {@code true} if gravity steps currently skip the slot
+     */
+    public boolean isAsleep(int slot) {
+        return (asleep[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Wakes a slot so the next gravity step updates it again.
+     *
+     * @param slot the slot to wake
+     */
+    public void wake(int slot) {
+        // Only write when the bit is set, so moving awake slots never touches the shared word
+        if (isAsleep(slot)) {
+            ownFlags();
+            asleep[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+
+    /**
+     * Writes the state of one slot: its position, size, velocity, gravity, patrol progress and flags.
+     * The edges of its bounding box follow from its position and size, so they are not written.
+     *
+     * @param slot the slot to write
+     * @param out  the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeSlot(int slot, DataOutputStream out) throws IOException {
+        out.writeDouble(x[slot]);
+        out.writeDouble(y[slot]);
+        out.writeDouble(width[slot]);
+        out.writeDouble(height[slot]);
+        out.writeDouble(velocityY[slot]);
+        out.writeDouble(gravity[slot]);
+        out.writeInt(routeIndex[slot]);
+        out.writeByte((isLive(slot) ? 1 : 0) | (isAsleep(slot) ? 2 : 0));
+    }
+
+    /**
+     * Reads back the state of one slot written by {@link #writeSlot(int, DataOutputStream)}.
+     *
+     * @param slot the slot to restore
+     * @param in   the stream to read from
+     * @throws IOException if the stream cannot be read
+     */
+    public void readSlot(int slot, DataInputStream in) throws IOException {
+        double x = in.readDouble();
+        double y = in.readDouble();
+        ownShape();
+        ownRoute();
+        width[slot] = in.readDouble();
+        height[slot] = in.readDouble();
+        ownMotion();
+        velocityY[slot] = in.readDouble();
+        gravity[slot] = in.readDouble();
+        routeIndex[slot] = in.readInt();
+        int flags = in.readByte();
+        setX(slot, x);
+        moveY(slot, y);
+        setLive(slot, (flags & 1) != 0);
+        if ((flags & 2) != 0) {
+            ownFlags();
+            asleep[slot >>> 6] |= 1L << slot;
+        }
+    }
+
+    private void ownMotion() {
+        if (sharesMotion) {
+            x = x.clone();
+            y = y.clone();
+            left = left.clone();
+            right = right.clone();
+            top = top.clone();
+            bottom = bottom.clone();
+            velocityY = velocityY.clone();
+            sharesMotion = false;
+        }
+    }
+
+    private void ownShape() {
+        if (sharesShape) {
+            width = width.clone();
+            height = height.clone();
+            gravity = gravity.clone();
+            sharesShape = false;
+        }
+    }
+
+    private void ownRoute() {
+        if (sharesRoute) {
+            routeIndex = routeIndex.clone();
+            sharesRoute = false;
+        }
+    }
+
+    private void ownFlags() {
+        if (sharesFlags) {
+            live = live.clone();
+            asleep = asleep.clone();
+            sharesFlags = false;
+        }
+    }
+
+    private void grow() {
+        int slots = x.length * 2;
+        x = Arrays.copyOf(x, slots);
+        y = Arrays.copyOf(y, slots);
+        width = Arrays.copyOf(width, slots);
+        height = Arrays.copyOf(height, slots);
+        left = Arrays.copyOf(left, slots);
+        right = Arrays.copyOf(right, slots);
+        top = Arrays.copyOf(top, slots);
+        bottom = Arrays.copyOf(bottom, slots);
+        velocityY = Arrays.copyOf(velocityY, slots);
+        gravity = Arrays.copyOf(gravity, slots);
+        routeIndex = Arrays.copyOf(routeIndex, slots);
+        live = Arrays.copyOf(live, (slots + 63) >>> 6);
+        asleep = Arrays.copyOf(asleep, live.length);
+        // Growing copied every array
+        sharesMotion = false;
+        sharesShape = false;
+        sharesRoute = false;
+        sharesFlags = false;
+    }
+}
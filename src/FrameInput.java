@@ -0,0 +1,107 @@
+import bagel.Input;
+import bagel.Keys;
+
+/**
+ * An immutable snapshot of the keys the simulation reads during one tick.
+ *
+ * Held keys (LEFT, RIGHT, UP, DOWN) and one-shot presses (SPACE to jump, S to shoot)
+ * are packed into a bitmask, so the same snapshot can come from a live Bagel
+ * {@link Input}, a recording, or a bot.
+ */
+public final class FrameInput {
+    /** LEFT is held down. */
+    public static final int LEFT = 1;
+    /** RIGHT is held down. */
+    public static final int RIGHT = 1 << 1;
+    /** UP is held down. */
+    public static final int UP = 1 << 2;
+    /** DOWN is held down. */
+    public static final int DOWN = 1 << 3;
+    /** SPACE was pressed this tick. */
+    public static final int JUMP = 1 << 4;
+    /** S was pressed this tick. */
+    public static final int SHOOT = 1 << 5;
+    /** Number of distinct key bits in a snapshot. */
+    public static final int KEY_COUNT = 6;
+
+    private static final FrameInput[] CACHE = new FrameInput[1 << KEY_COUNT];
+    static {
+        for (int bits = 0; bits < CACHE.length; bits++) {
+            CACHE[bits] = new FrameInput(bits);
+        }
+    }
+
+    /** A snapshot with no keys held or pressed. */
+    public static final FrameInput NONE = CACHE[0];
+
+    private final int bits;
+
+    private FrameInput(int bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Returns the snapshot for the given key bits. Snapshots are shared, so this never allocates.
+     *
+     * @param bits a combination of the key constants in this class
+     * @return the matching snapshot
+     */
+    public static FrameInput of(int bits) {
+        return CACHE[bits & (CACHE.length - 1)];
+    }
+
+    /**
+     * Captures the keys the simulation cares about from the live Bagel input.
+     *
+     * @param input the current keyboard and mouse input state
+     * @return the matching snapshot
+     */
+    public static FrameInput from(Input input) {
+        int bits = 0;
+        if (input.isDown(Keys.LEFT)) bits |= LEFT;
+        if (input.isDown(Keys.RIGHT)) bits |= RIGHT;
+        if (input.isDown(Keys.UP)) bits |= UP;
+        if (input.isDown(Keys.DOWN)) bits |= DOWN;
+        if (input.wasPressed(Keys.SPACE)) bits |= JUMP;
+        if (input.wasPressed(Keys.S)) bits |= SHOOT;
+        return of(bits);
+    }
+
+    /**
+     * Returns the packed key bits of this snapshot.
+     * @return the key bits
+     */
+    public int getBits() {
+        return bits;
+    }
+
+    /** @return {@code true} if LEFT is held down */
+    public boolean isLeftHeld() {
+        return (bits & LEFT) != 0;
+    }
+
+    /** @return {@code true} if RIGHT is held down */
+    public boolean isRightHeld() {
+        return (bits & RIGHT) != 0;
+    }
+
+    /** @return {@code true} if UP is held down */
+    public boolean isUpHeld() {
+        return (bits & UP) != 0;
+    }
+
+    /** @return {@code true} if DOWN is held down */
+    public boolean isDownHeld() {
+        return (bits & DOWN) != 0;
+    }
+
+    /** @return {@code true} if SPACE was pressed this tick */
+    public boolean wasJumpPressed() {
+        return (bits & JUMP) != 0;
+    }
+
+    /** @return {@code true} if S was pressed this tick */
+    public boolean wasShootPressed() {
+        return (bits & SHOOT) != 0;
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Times the phases of every frame and keeps a {@link LatencyHistogram} per {@link FramePhase}.
+ *
+ * Phases are timed back to back: {@link #start()} reads the clock once and each call to
+ * {@link #record(FramePhase, long)} charges the time since the previous reading to a phase.
+ * While disabled, neither reads the clock, so the instrumented code only pays for a branch.
+ *
+ * <pre>
+ * long time = metrics.start();
+ * updateLadders();
+ * time = metrics.record(FramePhase.LADDERS, time);
+ * </pre>
+ */
+public class FrameMetrics {
+    private static final FramePhase[] PHASES = FramePhase.values();
+
+    private static final LatencyHistogram NO_SAMPLES = new LatencyHistogram();
+
+    // Created when timing is first enabled, so levels that are never timed, such as forks, stay small
+    private LatencyHistogram[] histograms;
+    private boolean isEnabled = false;
+
+    /**
+     * Starts timing the first phase of a run of phases.
+     *
+     * @return the current time in nanoseconds, or 0 while disabled
+     */
+    public long start() {
+        return isEnabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Charges the time since the given reading to a phase and starts timing the next one.
+     *
+     * @param phase the phase that just finished
+     * @param since the reading returned by {@link #start()} or the previous call
+     * @return the current time in nanoseconds, or 0 while disabled
+     */
+    public long record(FramePhase phase, long since) {
+        if (!isEnabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        // A reading taken before metrics were enabled mid-frame is 0; skip that one sample
+        if (since != 0) {
+            histograms[phase.ordinal()].record(now - since);
+        }
+        return now;
+    }
+
+    /**
+     * Returns whether phases are being timed.
+     * @return {@code true} if enabled
+     */
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Starts or stops timing phases. Samples recorded so far are kept.
+     * @param isEnabled whether to time phases
+     */
+    public void setEnabled(boolean isEnabled) {
+        if (isEnabled && histograms == null) {
+            histograms = new LatencyHistogram[PHASES.length];
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+        this.isEnabled = isEnabled;
+    }
+
+    /**
+     * Returns the duration of a phase below which the given fraction of its samples fall.
+     *
+     * @param phase    the phase to query
+     * @param quantile the fraction, e.g. 0.5 for the median or 0.999 for the 99.9th percentile
+     * @return the duration in nanoseconds, or 0 if the phase has no samples
+     */
+    public long getPercentile(FramePhase phase, double quantile) {
+        return histogram(phase).getPercentile(quantile);
+    }
+
+    /**
+     * Returns the number of times a phase has been timed.
+     * @param phase the phase to query
+     * @return the number of samples
+     */
+    public long getCount(FramePhase phase) {
+        return histogram(phase).getCount();
+    }
+
+    /**
+     * Returns the longest time a phase has taken.
+     * @param phase the phase to query
+     * @return the maximum in nanoseconds
+     */
+    public long getMax(FramePhase phase) {
+        return histogram(phase).getMax();
+    }
+
+    /**
+     * Returns the average time a phase has taken.
+     * @param phase the phase to query
+     * @return the mean in nanoseconds
+     */
+    public double getMean(FramePhase phase) {
+        return histogram(phase).getMean();
+    }
+
+    /**
+     * Discards every sample of every phase.
+     */
+    public void reset() {
+        if (histograms == null) {
+            return;
+        }
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    private LatencyHistogram histogram(FramePhase phase) {
+        return histograms == null ? NO_SAMPLES : histograms[phase.ordinal()];
+    }
+}
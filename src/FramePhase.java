@@ -0,0 +1,34 @@
+/**
+ * The phases of a frame that {@link FrameMetrics} times separately.
+ *
+ * The simulation phases follow the order of the updates in a level's tick,
+ * the last two cover drawing the frame.
+ */
+public enum FramePhase {
+    LADDERS("Ladders"),
+    BARRELS("Barrels"),
+    BULLETS("Bullets"),
+    MONKEYS("Monkeys"),
+    BANANAS("Bananas"),
+    HAMMER("Hammer"),
+    BLASTER("Blaster"),
+    MARIO("Mario"),
+    DONKEY("Donkey"),
+    END_CHECK("End check"),
+    DRAW("Draw"),
+    HUD("HUD");
+
+    private final String label;
+
+    FramePhase(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the name of the phase as shown in the metrics overlay.
+     * @return the label
+     */
+    public String getLabel() {
+        return label;
+    }
+}
@@ -7,7 +7,7 @@ import java.util.Properties;
  * and waits for the player to press SPACE to continue.
  */
 public class GameEndScreen {
-    private final Image BACKGROUND_IMAGE; // Background image for the end screen
+    private final Sprite BACKGROUND_IMAGE; // Background image for the end screen
     private final String GAME_WON_TXT;  // Message displayed when the player wins
     private final String GAME_LOST_TXT; // Message displayed when the player loses
     private final String CONTINUE_GAME_TXT;
@@ -41,7 +41,7 @@ public class GameEndScreen {
      */
     public GameEndScreen(Properties gameProps, Properties msgProps) {
         // Load the background image and end-game messages from properties
-        this.BACKGROUND_IMAGE = new Image(gameProps.getProperty("backgroundImage"));
+        this.BACKGROUND_IMAGE = SpriteCache.acquire(gameProps.getProperty("backgroundImage"));
         this.GAME_WON_TXT = msgProps.getProperty("gameEnd.won");
         this.GAME_LOST_TXT = msgProps.getProperty("gameEnd.lost");
         this.CONTINUE_GAME_TXT = msgProps.getProperty("gameEnd.continue");
@@ -95,7 +95,7 @@ public class GameEndScreen {
      */
     public boolean update(Input input) {
         // 1) Draw the background image
-        BACKGROUND_IMAGE.drawFromTopLeft(0, 0);
+        BACKGROUND_IMAGE.getImage().drawFromTopLeft(0, 0);
 
         // 2) Display game outcome message ("Game Won" or "Game Lost")
         String statusText = isWon ? GAME_WON_TXT : GAME_LOST_TXT;
@@ -126,4 +126,11 @@ public class GameEndScreen {
         return false;
     }
 
+    /**
+     * Releases the images held by this screen. Call once the screen is no longer shown.
+     */
+    public void dispose() {
+        SpriteCache.release(BACKGROUND_IMAGE);
+    }
+
 }
@@ -1,37 +1,107 @@
-import bagel.Image;
-import bagel.util.Point;
-import bagel.util.Rectangle;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 
 public abstract class GameEntity {
-    private Image image;
-    private double x, y;
+    private Sprite sprite;
+    // Position and bounding box live in the store, kept in step with the position and sprite
+    private final EntityStore store;
+    private final int slot;
 
-    public GameEntity(Image image, double x, double y) {
-        this.image = image;
-        this.x = x;
-        this.y = y;
+    public GameEntity(Sprite sprite, double x, double y) {
+        this(new EntityStore(1), sprite, x, y);
     }
 
     /**
-     * Returns this entity’s bounding box for collision detection.
-     * Uses the entity’s current image and position to compute the rectangle.
+     * Constructs an entity whose state is kept in a shared store.
      *
-     * @return a Rectangle representing the entity’s bounds
+     * @param store  the store the entity's state is added to
+     * @param sprite the sprite of the entity
+     * @param x      the initial x-coordinate
+     * @param y      the initial y-coordinate
      */
-    public Rectangle getBoundingBox() {
-        return image.getBoundingBoxAt(new Point(x, y));
+    public GameEntity(EntityStore store, Sprite sprite, double x, double y) {
+        this.sprite = sprite;
+        this.store = store;
+        this.slot = store.add(x, y, sprite.getWidth(), sprite.getHeight());
+    }
+
+    /**
+     * Constructs a copy of an entity whose state is kept in a copy of the original's store.
+     *
+     * @param source the entity to copy
+     * @param store  a copy of the source's store, see {@link EntityStore#copy()}
+     */
+    protected GameEntity(GameEntity source, EntityStore store) {
+        this.sprite = source.sprite;
+        this.store = store;
+        this.slot = source.slot;
     }
 
     /**
      * Tests whether this entity collides with another entity.
+     * Edges that touch count as a collision. Both entities are tested over the area they swept
+     * through on their last move, so {@code a.collidesWith(b)} always equals {@code b.collidesWith(a)}.
      *
      * @param other the other GameEntity to test against
-     * @return {@code true} if this entity’s bounding box intersects the other’s; {@code false} otherwise
+     * @return {@code true} if this entity’s swept area intersects the other’s; {@code false} otherwise
      */
     public boolean collidesWith(GameEntity other) {
-        return this.getBoundingBox().intersects(other.getBoundingBox());
+        return intersects(other.getSweptLeft(), other.getTop(), other.getSweptRight(), other.getBottom());
     }
 
+    /**
+     * Tests whether this entity’s bounding box intersects the given area.
+     * Edges that touch count as an intersection.
+     *
+     * @param left   the left edge of the area
+     * @param top    the top edge of the area
+     * @param right  the right edge of the area
+     * @param bottom the bottom edge of the area
+     * @return {@code true} if the bounding box intersects the area; {@code false} otherwise
+     */
+    public boolean intersects(double left, double top, double right, double bottom) {
+        return store.intersects(slot, left, top, right, bottom);
+    }
+
+    /**
+     * Returns the left edge of the bounding box.
+     * @return the smallest x-coordinate covered by this entity
+     */
+    public double getLeft() { return store.getLeft(slot); }
+
+    /**
+     * Returns the right edge of the bounding box.
+     * @return the largest x-coordinate covered by this entity
+     */
+    public double getRight() { return store.getRight(slot); }
+
+    /**
+     * Returns the left edge of the area this entity swept through on its last move.
+     * Only fast movers stretch it beyond the bounding box; see {@link Projectile}.
+     * @return the smallest x-coordinate the entity covered since the last tick
+     */
+    public double getSweptLeft() { return getLeft(); }
+
+    /**
+     * Returns the right edge of the area this entity swept through on its last move.
+     * Only fast movers stretch it beyond the bounding box; see {@link Projectile}.
+     * @return the largest x-coordinate the entity covered since the last tick
+     */
+    public double getSweptRight() { return getRight(); }
+
+    /**
+     * Returns the top edge of the bounding box.
+     * @return the smallest y-coordinate covered by this entity
+     */
+    public double getTop() { return store.getTop(slot); }
+
+    /**
+     * Returns the bottom edge of the bounding box.
+     * @return the largest y-coordinate covered by this entity
+     */
+    public double getBottom() { return store.getBottom(slot); }
+
     /**
      * Handles a collision with another entity. Subclasses may override
      * to implement custom collision responses (e.g., pickups, damage).
@@ -44,47 +114,92 @@ public abstract class GameEntity {
      * Returns the current x-coordinate of this entity.
      * @return the x-coordinate
      */
-    public double getX() { return x; }
+    public double getX() { return store.getX(slot); }
 
     /**
      * Sets the x-coordinate of this entity.
      * @param x the new x-coordinate
      */
-    public void setX(double x) { this.x = x; }
+    public void setX(double x) {
+        store.setX(slot, x);
+    }
 
     /**
      * Returns the current y-coordinate of this entity.
      * @return the y-coordinate
      */
-    public double getY() { return y; }
+    public double getY() { return store.getY(slot); }
 
     /**
      * Sets the y-coordinate of this entity.
      * @param y the new y-coordinate
      */
-    public void setY(double y) { this.y = y; }
+    public void setY(double y) {
+        store.setY(slot, y);
+    }
+
+    /**
+     * Renders the entity’s sprite at its current position.
+     * Only called by the renderer, never by the simulation.
+     *
+     * @param batch the batch collecting this frame's sprites
+     */
+    public void draw(SpriteBatch batch) {
+        batch.draw(sprite, getX(), getY());
+    }
+
+    /**
+     * Returns the sprite used to represent this entity.
+     * @return the Sprite object
+     */
+    public Sprite getSprite() {
+        return sprite;
+    }
+
+    /**
+     * Sets a new sprite for this entity.
+     * @param sprite the Sprite to use for collisions and rendering
+     */
+    public void setSprite(Sprite sprite) {
+        this.sprite = sprite;
+        store.setSize(slot, sprite.getWidth(), sprite.getHeight());
+    }
+
+    /**
+     * Writes this entity's state for a save-state snapshot of its level.
+     * Subclasses with state of their own write it after this entity's.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeState(DataOutputStream out) throws IOException {
+        store.writeSlot(slot, out);
+    }
 
     /**
-     * Renders the entity’s image at its current position.
+     * Restores this entity's state from a snapshot written by {@link #writeState(DataOutputStream)}.
+     *
+     * @param in the stream to read from
+     * @throws IOException if the stream cannot be read
      */
-    public void draw(){
-        image.draw(getX(),getY());
+    public void readState(DataInputStream in) throws IOException {
+        store.readSlot(slot, in);
     }
 
     /**
-     * Returns the image used to represent this entity.
-     * @return the Image object
+     * Returns the store holding this entity's state.
+     * @return the EntityStore
      */
-    public Image getImage() {
-        return image;
+    protected EntityStore getStore() {
+        return store;
     }
 
     /**
-     * Sets a new image for this entity.
-     * @param image the Image to use for rendering
+     * Returns the slot of this entity in its store.
+     * @return the slot index
      */
-    public void setImage(Image image) {
-        this.image = image;
+    protected int getSlot() {
+        return slot;
     }
 
 }
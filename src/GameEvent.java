@@ -0,0 +1,88 @@
+/**
+ * The events the game records in the {@link GameLog}.
+ *
+ * An event is logged as its code and at most one int payload; the message is only
+ * formatted when the log is written out.
+ */
+public enum GameEvent {
+    MARIO_JUMPED(LogLevel.DEBUG, "Jumping!"),
+    HAMMER_COLLECTED(LogLevel.INFO, "Hammer collected!"),
+    HAMMER_DISAPPEARED(LogLevel.DEBUG, "hammer collected by mario and disappeared."),
+    BLASTER_COLLECTED(LogLevel.INFO, "Blaster collected!"),
+    BLASTER_DISAPPEARED(LogLevel.DEBUG, "blaster collected by mario and disappeared."),
+    BARREL_SMASHED(LogLevel.INFO, "Mario smashed barrel with hammer!"),
+    BARREL_HIT_MARIO(LogLevel.INFO, "Mario hit by barrel! Game Over!"),
+    BANANA_HIT_MARIO(LogLevel.INFO, "Banana hit Mario, game over!"),
+    BULLET_HIT_MONKEY(LogLevel.DEBUG, "Bullet hit Monkey and disappeared!"),
+    BULLET_HIT_PLATFORM(LogLevel.DEBUG, "Bullet hit Platform and disappeared!"),
+    MONKEY_SHOT(LogLevel.INFO, "Monkey hit by bullet and disappeared."),
+    MONKEY_HIT_MARIO(LogLevel.INFO, "Monkey hit by Mario and game over."),
+    MONKEY_SMASHED(LogLevel.INFO, "Mario killed a monkey using hammer."),
+    DONKEY_HIT(LogLevel.INFO, "Donkey hit by bullet! Health: ", true),
+    DONKEY_DEFEATED(LogLevel.INFO, "Donkey defeated!"),
+    MARIO_KILLED_BY_MONKEY(LogLevel.INFO, "Mario killed by monkey."),
+    MARIO_KILLED_BY_BANANA(LogLevel.INFO, "Mario killed by banana."),
+    MARIO_KILLED_BY_DONKEY(LogLevel.INFO, "Mario killed by donkey."),
+    MARIO_KILLED_BY_BARREL(LogLevel.INFO, "Mario killed by barrel."),
+    MARIO_KILLED_BY_TIME(LogLevel.INFO, "Mario killed by time."),
+    UNKNOWN_LOG_LEVEL(LogLevel.INFO, "Warning: Unknown log.level, recording INFO events"),
+    INVALID_PLATFORM_ENTRY(LogLevel.INFO, "Warning: Invalid platform entry, number ", true),
+    INCOMPLETE_INTELLIGENT_MONKEY(LogLevel.INFO, "Warning: Incomplete data for intelligentMonkey.", true),
+    INCOMPLETE_NORMAL_MONKEY(LogLevel.INFO, "Warning: Incomplete data for normalMonkey.", true);
+
+    private static final GameEvent[] VALUES = values();
+
+    private final LogLevel level;
+    private final String message;
+    private final boolean hasValue;
+    private volatile boolean isEnabled = false;  // Set by the thread starting the log, read by game threads
+
+    GameEvent(LogLevel level, String message) {
+        this(level, message, false);
+    }
+
+    GameEvent(LogLevel level, String message, boolean hasValue) {
+        this.level = level;
+        this.message = message;
+        this.hasValue = hasValue;
+    }
+
+    /**
+     * Returns the event with the given code.
+     *
+     * @param code the code of the event, as returned by {@link #ordinal()}
+     * @return the event
+     */
+    static GameEvent of(int code) {
+        return VALUES[code];
+    }
+
+    /**
+     * Returns whether the log currently records this event.
+     * @return {@code true} if the event is recorded
+     */
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Enables exactly the events at or above the given level.
+     *
+     * @param threshold the least important level to record
+     */
+    static void enableFrom(LogLevel threshold) {
+        for (GameEvent event : VALUES) {
+            event.isEnabled = threshold != LogLevel.OFF && event.level.compareTo(threshold) >= 0;
+        }
+    }
+
+    /**
+     * Returns the message written to the log for this event.
+     *
+     * @param value the event's payload, appended to the message if the event carries one
+     * @return the message
+     */
+    public String format(int value) {
+        return hasValue ? message + value : message;
+    }
+}
@@ -0,0 +1,176 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The game's event log.
+ *
+ * Logging an event only claims a slot in a fixed ring buffer with a compare-and-set and
+ * stores the event's code and payload there; it never locks, allocates or waits for I/O.
+ * A background thread drains the buffer, formats the messages and writes them to the log
+ * file. If the writer falls a whole buffer behind, new events are dropped and counted
+ * rather than stalling the game.
+ *
+ * The log records nothing until {@link #start(Properties)} is called, and events below
+ * the configured {@link LogLevel} cost a single flag check.
+ */
+public class GameLog {
+    private static final int CAPACITY = 1 << 14;
+    private static final int MASK = CAPACITY - 1;
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final int[] codes = new int[CAPACITY];
+    private static final int[] values = new int[CAPACITY];
+    // Holds sequence + 1 once the event with that sequence number is fully written to its slot
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong claimed = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static volatile long drained = 0;
+
+    private static Thread writerThread;
+    private static volatile boolean isRunning = false;
+    private static boolean hasShutdownHook = false;
+
+    private GameLog() {
+    }
+
+    /**
+     * Starts writing the log, as configured by {@code log.level} (DEBUG, INFO or OFF; INFO
+     * if unset or unknown, with a warning in the log) and {@code log.file} (standard output if
+     * unset). The log is flushed when the program exits. Does nothing if the log is already running.
+     *
+     * @param gameProps Properties file containing game settings.
+     */
+    public static synchronized void start(Properties gameProps) {
+        if (isRunning) {
+            return;
+        }
+        String levelName = gameProps.getProperty("log.level", LogLevel.INFO.name()).trim();
+        LogLevel level = LogLevel.INFO;
+        boolean isKnownLevel = true;
+        try {
+            level = LogLevel.valueOf(levelName);
+        } catch (IllegalArgumentException ex) {
+            isKnownLevel = false;
+        }
+        if (level == LogLevel.OFF) {
+            return;
+        }
+        String logFile = gameProps.getProperty("log.file");
+        Writer writer = IOUtils.openLog(logFile);
+        isRunning = true;
+        writerThread = new Thread(() -> drain(writer, logFile != null), "game-log");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        if (!hasShutdownHook) {
+            // The hook stops whichever run of the log is current, so one is enough
+            Runtime.getRuntime().addShutdownHook(new Thread(GameLog::stop));
+            hasShutdownHook = true;
+        }
+        GameEvent.enableFrom(level);
+        if (!isKnownLevel) {
+            log(GameEvent.UNKNOWN_LOG_LEVEL);
+        }
+    }
+
+    /**
+     * Stops recording events, writes out the ones already logged and closes the log.
+     */
+    public static synchronized void stop() {
+        if (!isRunning) {
+            return;
+        }
+        GameEvent.enableFrom(LogLevel.OFF);
+        isRunning = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Logs an event without a payload.
+     *
+     * @param event the event
+     */
+    public static void log(GameEvent event) {
+        log(event, 0);
+    }
+
+    /**
+     * Logs an event with an int payload.
+     *
+     * @param event the event
+     * @param value the payload
+     */
+    public static void log(GameEvent event, int value) {
+        if (!event.isEnabled()) {
+            return;
+        }
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - drained >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & MASK;
+        codes[slot] = event.ordinal();
+        values[slot] = value;
+        published.lazySet(slot, sequence + 1);
+    }
+
+    /**
+     * Returns the number of events dropped because the log writer had fallen behind.
+     * @return the number of dropped events
+     */
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Writes events out in the order they were claimed until the log is stopped and empty.
+     *
+     * @param writer  the log to write to
+     * @param isOwned whether to close the log afterwards; standard output is only flushed
+     */
+    private static void drain(Writer writer, boolean isOwned) {
+        long next = drained;
+        long reportedDrops = dropped.get();
+        try {
+            while (true) {
+                int slot = (int) next & MASK;
+                if (published.get(slot) == next + 1) {
+                    writer.write(GameEvent.of(codes[slot]).format(values[slot]));
+                    writer.write(System.lineSeparator());
+                    drained = ++next;
+                    continue;
+                }
+                long drops = dropped.get();
+                if (drops != reportedDrops) {
+                    writer.write("Log fell behind, dropped events: " + (drops - reportedDrops) + System.lineSeparator());
+                    reportedDrops = drops;
+                }
+                writer.flush();
+                // An unpublished slot with a claimed sequence is still being written; wait for it
+                if (!isRunning && next == claimed.get()) {
+                    break;
+                }
+                LockSupport.parkNanos(IDLE_WAIT_NANOS);
+            }
+            if (isOwned) {
+                writer.close();
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+}
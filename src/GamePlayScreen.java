@@ -4,15 +4,17 @@ import java.util.Properties;
 
 /**
  * Represents the main gameplay screen where the player controls Mario.
- * This class manages game objects, updates their states, and handles game logic.
+ * This class feeds the player's input to a {@link LevelSimulation} each frame
+ * and then renders the resulting state; it holds no game logic of its own.
  */
 public abstract class GamePlayScreen {
-    private final Properties GAME_PROPS;
-    private final Image BACKGROUND_IMAGE;   // Background image for the game
-    // Frame tracking
-    private int currFrame = 0;  // Tracks the number of frames elapsed
-    // Game parameters
-    private final int MAX_FRAMES;  // Maximum number of frames before game ends
+    private final LevelSimulation simulation;
+    private final ReplayRecorder recorder;
+    private final Sprite BACKGROUND_IMAGE;  // Background image for the game
+    private final MetricsOverlay metricsOverlay;
+    private final SpriteBatch batch = new SpriteBatch();
+    private final StaticLayer staticLayer;
+    private static final Keys METRICS_KEY = Keys.F3;
 
     // Display text variables
     private final Font STATUS_FONT;
@@ -22,73 +24,121 @@ public abstract class GamePlayScreen {
     private static final String TIME_MESSAGE = "Time Left ";
 
     private static final int TIME_DISPLAY_DIFF_Y = 30;
-    private int score = 0;  // Player's score for jumping over barrels
-    private boolean isGameOver = false; // Game over flag
 
     /**
-     * Returns the player's current score.
+     * Constructs the gameplay screen, loading the resources needed to draw the level.
      *
-     * @return The player's score.
+     * @param gameProps   Properties file containing game settings.
+     * @param simulation  The level this screen drives and renders.
      */
-    public int getScore() {
-        return score;
+    public GamePlayScreen(Properties gameProps, LevelSimulation simulation) {
+        this.simulation = simulation;
+        this.recorder = new ReplayRecorder(gameProps, simulation.getLevel(), simulation.getScore());
+
+        // Load display parameters
+        this.STATUS_FONT = new Font(
+                gameProps.getProperty("font"),
+                Integer.parseInt(gameProps.getProperty("gamePlay.score.fontSize"))
+        );
+        this.SCORE_X = Integer.parseInt(gameProps.getProperty("gamePlay.score.x"));
+        this.SCORE_Y = Integer.parseInt(gameProps.getProperty("gamePlay.score.y"));
+        this.BACKGROUND_IMAGE = SpriteCache.acquire("res/background.png");
+        this.staticLayer = new StaticLayer(BACKGROUND_IMAGE);
+        this.metricsOverlay = new MetricsOverlay(gameProps);
+
     }
 
-    public void addScore(int points) {
-        score += points;
+    /**
+     * Advances the level by one tick using the current input, then draws it.
+     * Pressing F3 shows or hides the frame timings overlay; timings are only taken while it is shown.
+     * The input of every tick is recorded so the run can be saved as a {@link Replay}.
+     *
+     * @param input The current player input.
+     * @return {@code true} if the game ends, {@code false} otherwise.
+     */
+    public boolean update(Input input) {
+        FrameMetrics metrics = simulation.getMetrics();
+        if (input.wasPressed(METRICS_KEY)) {
+            metrics.setEnabled(!metrics.isEnabled());
+        }
+
+        FrameInput frameInput = FrameInput.from(input);
+        recorder.record(frameInput);
+        boolean isFinished = simulation.step(frameInput);
+
+        long time = metrics.start();
+        batch.begin();
+        render(batch);
+        batch.end();
+        time = metrics.record(FramePhase.DRAW, time);
+        displayInfo();
+        metrics.record(FramePhase.HUD, time);
+
+        if (metrics.isEnabled()) {
+            metricsOverlay.draw(metrics, batch);
+        }
+        return isFinished;
     }
 
     /**
-     * Returns the configured level number for this screen.
+     * Draws the current state of the level, apart from the score and other status text.
+     * Must not change the simulation.
      *
-     * @return the level number
+     * @param batch the batch to add this frame's sprites to; it is submitted afterwards
      */
-    public abstract int getLevel();
+    public abstract void render(SpriteBatch batch);
 
     /**
-     * Calculates the remaining time left in seconds.
+     * Returns the level simulation behind this screen.
      *
-     * @return The number of seconds remaining before the game ends.
+     * @return the simulation
      */
-    public int getSecondsLeft() {
-        return (MAX_FRAMES - currFrame) / 60;
+    public LevelSimulation getSimulation() {
+        return simulation;
     }
 
     /**
-     * Constructs the gameplay screen, loading resources and initializing game objects.
+     * Returns the run played on this screen so far.
      *
-     * @param gameProps  Properties file containing game settings.
+     * @return the inputs of every tick played, with the current score and time left
      */
-    public GamePlayScreen(Properties gameProps) {
-        this.GAME_PROPS = gameProps;
-
-        // Load game parameters
-        this.MAX_FRAMES = Integer.parseInt(gameProps.getProperty("gamePlay.maxFrames"));
-        this.STATUS_FONT = new Font(
-                gameProps.getProperty("font"),
-                Integer.parseInt(gameProps.getProperty("gamePlay.score.fontSize"))
-        );
-        this.SCORE_X = Integer.parseInt(gameProps.getProperty("gamePlay.score.x"));
-        this.SCORE_Y = Integer.parseInt(gameProps.getProperty("gamePlay.score.y"));
-        this.BACKGROUND_IMAGE = new Image("res/background.png");
+    public Replay getReplay() {
+        return recorder.finish(simulation);
+    }
 
+    /**
+     * Returns the player's current score.
+     *
+     * @return The player's score.
+     */
+    public int getScore() {
+        return simulation.getScore();
+    }
 
+    /**
+     * Returns the configured level number for this screen.
+     *
+     * @return the level number
+     */
+    public int getLevel() {
+        return simulation.getLevel();
     }
 
     /**
-     * Updates game state each frame.
+     * Calculates the remaining time left in seconds.
      *
-     * @param input The current player input.
-     * @return {@code true} if the game ends, {@code false} otherwise.
+     * @return The number of seconds remaining before the game ends.
      */
-    public abstract boolean update(Input input);
+    public int getSecondsLeft() {
+        return simulation.getSecondsLeft();
+    }
 
     /**
-     * Returns the image used as the background.
+     * Returns the sprite used as the background.
      *
-     * @return the background Image
+     * @return the background Sprite
      */
-    public Image getBackground() {
+    public Sprite getBackground() {
         return BACKGROUND_IMAGE;
     }
 
@@ -96,10 +146,10 @@ public abstract class GamePlayScreen {
      * Displays the player's score & time left on the screen.
      */
     public void displayInfo() {
-        STATUS_FONT.drawString(SCORE_MESSAGE + score, SCORE_X, SCORE_Y);
+        STATUS_FONT.drawString(SCORE_MESSAGE + simulation.getScore(), SCORE_X, SCORE_Y);
 
         // Time left in seconds
-        int secondsLeft = (MAX_FRAMES - currFrame) / 60;
+        int secondsLeft = simulation.getSecondsLeft();
         int TIME_X = SCORE_X;
         int TIME_Y = SCORE_Y + TIME_DISPLAY_DIFF_Y;
         STATUS_FONT.drawString(TIME_MESSAGE + secondsLeft, TIME_X, TIME_Y);
@@ -110,29 +160,28 @@ public abstract class GamePlayScreen {
      *
      * @return {@code true} if the player has won; {@code false} otherwise
      */
-     public abstract boolean isPlayerWon();
+    public boolean isPlayerWon() {
+        return simulation.isPlayerWon();
+    }
 
     /**
      * Checks whether the player has met the loss condition for this level.
      *
      * @return {@code true} if the game is over (lost); {@code false} otherwise
      */
-     public abstract boolean isGameOver();
+    public boolean isGameOver() {
+        return simulation.isGameOver();
+    }
 
     /**
-     * Checks if the game has reached its time limit by comparing the current frame count
-     * against the maximum allowed frames. If the limit is reached, the game may trigger
-     * a timeout condition.
+     * Returns the layer holding the background and the parts of the level that do not move.
      *
-     * @return {@code true} if the current frame count has reached or exceeded
-     *         the maximum allowed frames, indicating the time limit has been reached;
-     *         {@code false} otherwise.
+     * @return the static layer
      */
-    public boolean checkingGameTime() {
-        return currFrame >= MAX_FRAMES;
+    public StaticLayer getStaticLayer() {
+        return staticLayer;
     }
 
-
     /**
      * Returns the Font used to draw status information.
      *
@@ -143,24 +192,10 @@ public abstract class GamePlayScreen {
     }
 
     /**
-     * Returns the number of frames that have elapsed since this screen started.
-     *
-     * @return the current frame count
-     */
-    public int getCurrFrame() {
-        return currFrame;
-    }
-
-    /**
-     * Sets the internal frame counter to the given value.
-     *
-     * @param frame the new frame count
+     * Releases the images held by this screen. Call once the screen is no longer shown.
      */
-    public void setCurrFrame(int frame) {
-        this.currFrame = frame;
-    }
-
-    protected Properties getGameProps() {
-        return GAME_PROPS;
+    public void dispose() {
+        staticLayer.dispose();
+        SpriteCache.release(BACKGROUND_IMAGE);
     }
 }
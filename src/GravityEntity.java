@@ -1,10 +1,9 @@
-import bagel.Image;
-
 /**
  * A super class for entities affected by gravity.
  *
  * Applies a constant downward acceleration each frame, enforces a terminal velocity,
- * and handles vertical collision with platforms.
+ * and handles vertical collision with platforms. An entity that has come to rest on a
+ * platform sleeps, and costs nothing per frame, until it is moved.
  *
  */
 public abstract class GravityEntity extends GameEntity {
@@ -12,48 +11,50 @@ public abstract class GravityEntity extends GameEntity {
      * The maximum downward speed an entity can reach due to gravity (pixels per frame).
      */
     public static final double TERMINAL_VELOCITY = 10.0;
-    private double velocityY = 0;
-    private final double GRAVITY;
 
-    public GravityEntity(Image initialImage, double startX, double startY, double gravity) {
-        super(initialImage, startX, startY);
-        this.GRAVITY = gravity;
+    public GravityEntity(Sprite initialSprite, double startX, double startY, double gravity) {
+        this(new EntityStore(1), initialSprite, startX, startY, gravity);
+    }
+
+    public GravityEntity(EntityStore store, Sprite initialSprite, double startX, double startY, double gravity) {
+        super(store, initialSprite, startX, startY);
+        store.setGravity(getSlot(), gravity);
+    }
+
+    protected GravityEntity(GravityEntity source, EntityStore store) {
+        super(source, store);
     }
 
     /**
      * Updates the entity’s vertical motion for one frame:
      *
-     * @param platforms an array of platforms to test for vertical collisions
+     * @param platforms the index of platforms to test for vertical collisions
      */
-    public void update(Platform[] platforms) {
+    public void update(PlatformIndex platforms) {
         applyGravity(platforms);
-        draw();
+    }
+
+    /**
+     * Returns whether the entity is resting on a platform and skipped by gravity until it is moved.
+     *
+     * @return {@code true} if the entity is asleep
+     */
+    public boolean isAsleep() {
+        return getStore().isAsleep(getSlot());
     }
 
     /**
      * Applies gravity to vertical velocity.
      * Moves the entity down by the new velocity (capped at {@link #TERMINAL_VELOCITY}).
-     * Checks for collisions with each platform;
-     * if a collision is found, align the entity to stand on top of the platform and resets vertical velocity to zero.
+     * Looks up the platforms under the entity's new position in the {@link PlatformIndex}, instead of
+     * testing every platform; if one is found, aligns the entity to stand on top of it and resets
+     * vertical velocity to zero.
+     * Levels that keep their entities in a shared {@link EntityStore} run the same step for all of them
+     * with {@link EntityStore#applyGravity(int, int, PlatformIndex)} instead.
      *
-     * @param platforms an array of platforms to test for vertical collisions
+     * @param platforms the index of platforms to test for vertical collisions
      */
-    private void applyGravity(Platform[] platforms) {
-        // 1) Apply gravity to vertical velocity (capped at terminal velocity)
-        velocityY = Math.min(velocityY + GRAVITY, TERMINAL_VELOCITY);
-
-        // 2) Move vertically
-        setY(getY() + velocityY);
-
-        // 3) If we hit a platform, snap to its top and zero out velocity
-        for (Platform platform : platforms) {
-            if (getBoundingBox().intersects(platform.getBoundingBox())) {
-                double newY = platform.getBoundingBox().top()
-                        - getImage().getHeight() / 2.0;
-                setY(newY);
-                velocityY = 0;
-                break;
-            }
-        }
+    private void applyGravity(PlatformIndex platforms) {
+        getStore().applyGravity(getSlot(), platforms);
     }
 }
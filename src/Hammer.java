@@ -1,11 +1,13 @@
-import bagel.Image;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 
 /**
  * Represents a Hammer collectible in the game.
  * The hammer can be collected by the player, at which point it disappears from the screen.
  */
 public class Hammer extends GameEntity implements Collectable{
-    private static final Image HAMMER_IMAGE = new Image("res/hammer.png");
+    private static final Sprite HAMMER_SPRITE = SpriteCache.acquire("res/hammer.png");
     private boolean isCollected = false;
 
     /**
@@ -15,15 +17,26 @@ public class Hammer extends GameEntity implements Collectable{
      * @param y The initial y-coordinate of the hammer.
      */
     public Hammer(double x, double y) {
-        super(HAMMER_IMAGE, x, y);
+        super(HAMMER_SPRITE, x, y);
+    }
+
+    /**
+     * Constructs a copy of a hammer, for a copy of a level.
+     *
+     * @param source The hammer to copy.
+     */
+    public Hammer(Hammer source) {
+        super(source, source.getStore().copy());
+        this.isCollected = source.isCollected;
     }
 
     /**
      * Draws the hammer on the screen if it has not been collected.
      */
-    public void update() {
+    @Override
+    public void draw(SpriteBatch batch) {
         if (!isCollected) {
-            super.draw(); // Bagel centers images automatically
+            super.draw(batch); // Bagel centers images automatically
 //            drawBoundingBox(); // Uncomment for debugging
         }
     }
@@ -44,6 +57,18 @@ public class Hammer extends GameEntity implements Collectable{
         return isCollected;
     }
 
+    @Override
+    public void writeState(DataOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeBoolean(isCollected);
+    }
+
+    @Override
+    public void readState(DataInputStream in) throws IOException {
+        super.readState(in);
+        isCollected = in.readBoolean();
+    }
+
 
     /**
      * Handles state changes when this Hammer collides with another entity.
@@ -57,7 +82,7 @@ public class Hammer extends GameEntity implements Collectable{
     public void changeState(GameEntity other) {
         if (other instanceof Mario && !isCollected) {
             isCollected = true;
-            System.out.println("hammer collected by mario and disappeared.");
+            GameLog.log(GameEvent.HAMMER_DISAPPEARED);
         }
     }
 
@@ -6,7 +6,7 @@ import java.util.Properties;
  * This screen displays the game title, a prompt for the player, and a background image.
  */
 public class HomeScreen {
-    private final Image BACKGROUND_IMAGE;  // Background image for the home screen
+    private final Sprite BACKGROUND_IMAGE; // Background image for the home screen
     private final String TITLE;            // Title text displayed at the top
     private final String PROMPT;           // Instruction prompt (e.g., "PRESS ENTER TO START")
 
@@ -26,7 +26,7 @@ public class HomeScreen {
      */
     public HomeScreen(Properties gameProps, Properties msgProps) {
         // Load the background image from properties
-        BACKGROUND_IMAGE = new Image(gameProps.getProperty("backgroundImage"));
+        BACKGROUND_IMAGE = SpriteCache.acquire(gameProps.getProperty("backgroundImage"));
 
         // Load title and prompt text from properties
         TITLE = msgProps.getProperty("home.title");
@@ -65,7 +65,7 @@ public class HomeScreen {
      */
     public boolean update(Input input) {
         // 1) Draw the background image at the top-left corner
-        BACKGROUND_IMAGE.drawFromTopLeft(0, 0);
+        BACKGROUND_IMAGE.getImage().drawFromTopLeft(0, 0);
 
         // 2) Draw the game title, centered horizontally
         double titleX = Window.getWidth() / 2 - TITLE_FONT.getWidth(TITLE) / 2;
@@ -89,5 +89,11 @@ public class HomeScreen {
         // 5) Otherwise, remain on the home screen
         return false;
     }
-}
 
+    /**
+     * Releases the images held by this screen. Call once the screen is no longer shown.
+     */
+    public void dispose() {
+        SpriteCache.release(BACKGROUND_IMAGE);
+    }
+}
@@ -1,5 +1,10 @@
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.Properties;
 
 /**
@@ -23,4 +28,135 @@ public class IOUtils {
         return appProps;
     }
 
+    /***
+     * Read the pixel dimensions of an image file from its header, without decoding the image
+     * or touching the graphics context
+     * @param imageFile: the path to the image file
+     * @return: an array holding the width and height of the image
+     */
+    public static int[] readImageSize(String imageFile) {
+        int[] size = new int[2];
+        try (ImageInputStream in = ImageIO.createImageInputStream(new File(imageFile))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + imageFile);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in);
+                size[0] = reader.getWidth(0);
+                size[1] = reader.getHeight(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch(IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+
+        return size;
+    }
+
+    /***
+     * Read and decode an image file
+     * @param imageFile: the path to the image file
+     * @return: the decoded image
+     */
+    public static BufferedImage readImage(String imageFile) {
+        BufferedImage image = null;
+        try {
+            image = ImageIO.read(new File(imageFile));
+            if (image == null) {
+                throw new IOException("Unsupported image format: " + imageFile);
+            }
+        } catch(IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+
+        return image;
+    }
+
+    /***
+     * Write an image to a PNG file
+     * @param imageFile: the path to the PNG file
+     * @param image: the image to write
+     */
+    public static void writeImage(String imageFile, BufferedImage image) {
+        try {
+            ImageIO.write(image, "png", new File(imageFile));
+        } catch(IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+    }
+
+    /***
+     * Write a recorded run to a replay file
+     * @param replayFile: the path to the replay file
+     * @param replay: the run to write
+     */
+    public static void writeReplay(String replayFile, Replay replay) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(replayFile)))) {
+            replay.writeTo(out);
+        } catch(IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+    }
+
+    /***
+     * Write compiled level definitions to a snapshot file
+     * @param snapshotFile: the path to the snapshot file
+     * @param configHash: the hash of the game properties the levels were compiled from
+     * @param levels: the levels to write
+     */
+    public static void writeLevelSnapshot(String snapshotFile, int configHash, LevelDefinition[] levels) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(snapshotFile)))) {
+            LevelDefinition.writeSnapshot(out, configHash, levels);
+        } catch(IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+    }
+
+    /***
+     * Read compiled level definitions from a snapshot file
+     * @param snapshotFile: the path to the snapshot file
+     * @param configHash: the hash of the current game properties
+     * @return: the levels, or null if there is no snapshot or it was compiled from different properties
+     */
+    public static LevelDefinition[] readLevelSnapshot(String snapshotFile, int configHash) {
+        if (!new File(snapshotFile).isFile()) {
+            return null;
+        }
+        LevelDefinition[] levels = null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+            levels = LevelDefinition.readSnapshot(in, configHash);
+        } catch(IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+
+        return levels;
+    }
+
+
+    /***
+     * Open a log file for writing, replacing any previous log
+     * @param logFile: the path to the log file, or null to write to standard output
+     * @return: a buffered writer for the log
+     */
+    public static Writer openLog(String logFile) {
+        Writer writer = null;
+        try {
+            OutputStream out = logFile == null ? System.out : new FileOutputStream(logFile);
+            writer = new BufferedWriter(new OutputStreamWriter(out));
+        } catch(IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+
+        return writer;
+    }
 }
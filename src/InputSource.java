@@ -0,0 +1,16 @@
+/**
+ * Supplies the input for each tick of a headless {@link LevelSimulation}.
+ *
+ * Implementations stand in for the keyboard when a level runs without a window,
+ * e.g. a scripted bot or a recorded run being played back.
+ */
+public interface InputSource {
+
+    /**
+     * Returns the input for the next tick.
+     *
+     * @return the keys held and pressed during the next tick
+     */
+    FrameInput next();
+
+}
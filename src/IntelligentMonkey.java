@@ -1,4 +1,6 @@
-import bagel.Image;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 
 /**
  * Represents an intelligent monkey that follows a specified patrol path and shoots bananas.
@@ -8,43 +10,76 @@ import bagel.Image;
  *
  */
 public class IntelligentMonkey extends Monkey {
+    private static final Sprite LEFT_SPRITE = SpriteCache.acquire("res/intelli_monkey_left.png");
+    private static final Sprite RIGHT_SPRITE = SpriteCache.acquire("res/intelli_monkey_right.png");
     private static final int SHOOT_FREQ = 5; // shooting interval in seconds
+    /** The most bananas one monkey can have in flight at once. */
+    public static final int MAX_BANANAS_IN_FLIGHT =
+            Banana.FLIGHT_TICKS / (SHOOT_FREQ * LevelSimulation.TICKS_PER_SECOND) + 1;
     private int shootTimer = 0;
 
-    public IntelligentMonkey(double x, double y, String direction, int[] patrolPath, Platform[] platforms) {
+    public IntelligentMonkey(double x, double y, String direction, int[] patrolPath, PlatformIndex platforms,
+                             double screenWidth) {
+        this(new EntityStore(1), x, y, direction, patrolPath, platforms, screenWidth);
+    }
+
+    public IntelligentMonkey(EntityStore store, double x, double y, String direction, int[] patrolPath,
+                             PlatformIndex platforms, double screenWidth) {
         super(
-                x, y, direction, joinPath(patrolPath),
-                new Image("res/intelli_monkey_left.png"),
-                new Image("res/intelli_monkey_right.png"),
-                platforms
+                store, x, y, direction, patrolPath,
+                LEFT_SPRITE,
+                RIGHT_SPRITE,
+                platforms, screenWidth
         );
     }
 
+    private IntelligentMonkey(IntelligentMonkey source, EntityStore store) {
+        super(source, store);
+        this.shootTimer = source.shootTimer;
+    }
+
+    @Override
+    public Monkey copy(EntityStore store) {
+        return new IntelligentMonkey(this, store);
+    }
+
     /**
-     * Creates a new banana projectile at the monkey’s current location,
+     * Shoots a banana from the monkey’s current location,
      * traveling in the direction the monkey is facing.
      *
-     * @return a fresh {@link Banana} instance ready to be added to the game
+     * @param bananas the pool the banana is taken from
+     * @return the launched {@link Banana}, or {@code null} if every banana is already in flight
      */
-    public Banana shootBanana() {
-        return new Banana(getX(), getY(), isFacingRight());
+    public Banana shootBanana(ProjectilePool<Banana> bananas) {
+        return bananas.launch(getX(), getY(), isFacingRight());
     }
 
     /**
      * Determines whether it is time for the monkey to shoot again.
      *
      * Internally increments a frame-based counter and resets it every
-     * {@code SHOOT_FREQ} seconds (assuming 60 frames per second).
+     * {@code SHOOT_FREQ} seconds of simulation ticks.
      *
      * @return {@code true} if the shoot interval has elapsed; {@code false} otherwise
      */
     public boolean shouldShoot() {
         shootTimer++;
-        if (shootTimer / 60 >= SHOOT_FREQ) {
+        if (shootTimer / LevelSimulation.TICKS_PER_SECOND >= SHOOT_FREQ) {
             shootTimer = 0;
             return true;
         }
         return false;
     }
 
-}
\ No newline at end of file
+    @Override
+    public void writeState(DataOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeInt(shootTimer);
+    }
+
+    @Override
+    public void readState(DataInputStream in) throws IOException {
+        super.readState(in);
+        shootTimer = in.readInt();
+    }
+}
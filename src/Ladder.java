@@ -1,11 +1,9 @@
-import bagel.*;
-
 /**
  * Represents a ladder in the game.
  * The ladder falls under gravity until it lands on a platform.
  */
 public class Ladder extends GravityEntity {
-    private static final Image LADDER_IMAGE = new Image("res/ladder.png");
+    private static final Sprite LADDER_SPRITE = SpriteCache.acquire("res/ladder.png");
     private static final double LADDER_GRAVITY = 0.25;
 
     /**
@@ -15,7 +13,28 @@ public class Ladder extends GravityEntity {
      * @param y The initial y-coordinate.
      */
     public Ladder(double x, double y) {
-        super(LADDER_IMAGE, x, y, LADDER_GRAVITY);
+        super(LADDER_SPRITE, x, y, LADDER_GRAVITY);
+    }
+
+    /**
+     * Constructs a ladder whose state is kept in a shared store.
+     *
+     * @param store The store the ladder's state is added to.
+     * @param x The initial x-coordinate.
+     * @param y The initial y-coordinate.
+     */
+    public Ladder(EntityStore store, double x, double y) {
+        super(store, LADDER_SPRITE, x, y, LADDER_GRAVITY);
+    }
+
+    /**
+     * Constructs a copy of a ladder, for a copy of a level.
+     *
+     * @param source The ladder to copy.
+     * @param store A copy of the store holding the source's state.
+     */
+    public Ladder(Ladder source, EntityStore store) {
+        super(source, store);
     }
 
 }
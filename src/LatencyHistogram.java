@@ -0,0 +1,108 @@
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in nanoseconds with a fixed relative precision, in the style of
+ * HdrHistogram.
+ *
+ * Values below 128 ns get a bucket each. Above that, every power of two is split into 64
+ * equal buckets, so a recorded value is off by less than 2% of itself. Values are clamped to
+ * about 18 minutes. Recording is a handful of integer operations and never allocates.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int HALF_SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+    private static final long MAX_VALUE = (1L << 40) - 1;
+
+    private final long[] counts = new long[bucketOf(MAX_VALUE) + 1];
+    private long totalCount = 0;
+    private long totalValue = 0;
+    private long maxValue = 0;
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration in nanoseconds; negative values count as zero
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts[bucketOf(value)]++;
+        totalCount++;
+        totalValue += value;
+        maxValue = Math.max(maxValue, value);
+    }
+
+    /**
+     * Returns the duration below which the given fraction of the recorded durations fall.
+     * The result is the upper end of the bucket holding that duration, so it never understates it.
+     *
+     * @param quantile the fraction, between 0 and 1, e.g. 0.99 for the 99th percentile
+     * @return the duration in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getPercentile(double quantile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * totalCount));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(bucket), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     * @return the count
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the longest duration recorded.
+     * @return the maximum in nanoseconds
+     */
+    public long getMax() {
+        return maxValue;
+    }
+
+    /**
+     * Returns the average of the recorded durations.
+     * @return the mean in nanoseconds, or 0 if nothing has been recorded
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalValue / totalCount;
+    }
+
+    /**
+     * Forgets every recorded duration.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalValue = 0;
+        maxValue = 0;
+    }
+
+    private static int bucketOf(long value) {
+        int highestBit = 63 - Long.numberOfLeadingZeros(value | 1);
+        if (highestBit < SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        // Keep the top bits of the value: (value >>> shift) is in [64, 128)
+        int shift = highestBit - SUB_BUCKET_BITS + 1;
+        return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < 2 * HALF_SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / HALF_SUB_BUCKETS - 1;
+        long mantissa = bucket - ((long) shift << (SUB_BUCKET_BITS - 1));
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -1,229 +1,50 @@
-import bagel.Input;
-
-import java.util.ArrayList;
 import java.util.Properties;
 
 /**
  * Represents the gameplay screen for Level 1.
+ * Draws the state of a {@link Level1Simulation} after every tick.
  */
 public class Level1Screen extends GamePlayScreen {
-    private static final int LEVEL = 1;
-    private static final int BARREL_SCORE = 100;
-    private static final int BARREL_CROSS_SCORE = 30;
-
-    private Mario mario;
-    private ArrayList<Ladder> ladders = new ArrayList<>();
-    private ArrayList<Barrel> barrels = new ArrayList<>();
-    private Hammer hammer;
-    private Donkey donkey;
-    private Platform[] platforms;
-
+    private final Level1Simulation level;
 
     public Level1Screen(Properties gameProps) {
-        super(gameProps);
-        initializeLevel1GameObjects();
-    }
-
-    /**
-     * Returns the current level number for this gameplay screen.
-     *
-     * @return the integer constant LEVEL (1 for Level1Screen)
-     */
-    @Override
-    public int getLevel() {
-        return LEVEL;
-    }
-
-    /**
-     * Advances the game state by one frame for Level 1 gameplay.
-     *
-     * This method increments the frame counter, renders the background and platforms,
-     * updates ladders, barrels
-     * handles hammer's collection and Mario’s update
-     * then updates Donkey Kong, and finally displays the score.
-     * After all updates, it checks for end‐of‐game or victory conditions.
-     *
-     * @param input the current keyboard and mouse input state
-     * @return {@code true} if the game is over or the player has won; {@code false} otherwise
-     */
-    public boolean update(Input input) {
-
-        // count current frame
-        setCurrFrame(getCurrFrame() + 1);
-
-        // Draw background
-        getBackground().drawFromTopLeft(0, 0);
-
-        // 1) Draw and update platforms
-        for (Platform platform : platforms) {
-            if (platform != null) {
-                platform.draw();
-            }
-        }
-
-        // 2) Update ladders
-        for (Ladder ladder : ladders) {
-            if (ladder != null) {
-                ladder.update(platforms);
-            }
-        }
-
-        // 3) Update barrels
-        for (Barrel barrel : barrels) {
-            if (barrel == null) continue;
-
-            if (mario.jumpOver(barrel)) {
-                addScore(BARREL_CROSS_SCORE);
-                break;
-            }
-
-            if (!barrel.isDestroyed() && mario.collidesWith(barrel)) {
-                if (mario.holdHammer()) {
-                    barrel.changeState(mario);
-                    addScore(BARREL_SCORE);
-                }
-            }
-            barrel.update(platforms);
-        }
-
-
-        // 4) update Hammer
-        if (!hammer.isCollected() && mario.collidesWith(hammer)) {
-            mario.changeState(hammer);
-        }
-        hammer.update();
-
-        // 5) update donkey
-        donkey.update(platforms);
-
-        // 6) Update Mario
-        mario.updateLevel1(input, ladders, platforms);
-
-        // 8) Display score and time left
-        displayInfo();
-
-        // 9) Return game state
-        return isGameOver() || isPlayerWon();
+        this(gameProps, new Level1Simulation(gameProps));
     }
 
-    /**
-     * Initializes game objects for level 1 such as Mario, Donkey Kong, barrels, ladders, platforms, and the hammer.
-     */
-    public void initializeLevel1GameObjects() {
-        this.barrels   = new ArrayList<>();
-        this.ladders   = new ArrayList<>();
-
-        // 1) Create Mario
-        Properties gameProps = getGameProps();
-        String[] marioPos = gameProps.getProperty("mario.level1").split(",");
-        double marioX = Double.parseDouble(marioPos[0]);
-        double marioY = Double.parseDouble(marioPos[1]);
-        this.mario = new Mario(marioX, marioY);
-
-        // 2) Create Donkey Kong
-        String[] donkeyPos = gameProps.getProperty("donkey.level1").split(",");
-        double donkeyX = Double.parseDouble(donkeyPos[0]);
-        double donkeyY = Double.parseDouble(donkeyPos[1]);
-        this.donkey = new Donkey(donkeyX, donkeyY);
-
-        // 3) Create the Barrels array
-        int barrelCount = Integer.parseInt(gameProps.getProperty("barrel.level1.count"));
-        for (int i = 1; i <= barrelCount; i++) {
-            String data = gameProps.getProperty("barrel.level1." + i);
-            if (data == null) continue;
-            String[] coord = data.split(",");
-            double x = Double.parseDouble(coord[0]);
-            double y = Double.parseDouble(coord[1]);
-            barrels.add(new Barrel(x, y));
-        }
-
-        // 4) Create the Ladders array
-        int ladderCount = Integer.parseInt(gameProps.getProperty("ladder.level2.count"));
-        for (int i = 1; i <= ladderCount; i++) {
-            String data = gameProps.getProperty("ladder.level2." + i);
-            if (data == null) continue;
-            String[] coord = data.split(",");
-            double x = Double.parseDouble(coord[0]);
-            double y = Double.parseDouble(coord[1]);
-            ladders.add(new Ladder(x, y));
-        }
-
-        // 5) Create the Platforms array
-        String platformData = gameProps.getProperty("platforms.level1");
-        if (platformData != null && !platformData.isEmpty()) {
-            String[] platformEntries = platformData.split(";");
-            this.platforms = new Platform[platformEntries.length];
-            int pIndex = 0;
-            for (String entry : platformEntries) {
-                String[] coords = entry.trim().split(",");
-                if (coords.length < 2) {
-                    System.out.println("Warning: Invalid platform entry -> " + entry);
-                    continue; // Skip invalid entries
-                }
-                double x = Double.parseDouble(coords[0]);
-                double y = Double.parseDouble(coords[1]);
-                if (pIndex < platformEntries.length) {
-                    platforms[pIndex] = new Platform(x, y);
-                    pIndex++;
-                }
-            }
-        } else {
-            this.platforms = new Platform[0]; // No platform data
-        }
-
-        // 6) Create Hammer
-        String[] hammerCoords = gameProps.getProperty("hammer.level1.1").split(",");
-        double hammerX = Double.parseDouble(hammerCoords[0]);
-        double hammerY = Double.parseDouble(hammerCoords[1]);
-        this.hammer = new Hammer(hammerX, hammerY);
+    public Level1Screen(Properties gameProps, LevelDefinition definition) {
+        this(gameProps, new Level1Simulation(definition));
     }
 
-
-    /**
-     * Checks whether the player has won the level.
-     * The player wins if Mario reaches Donkey Kong while holding a hammer.
-     *
-     * @return {@code true} if the win condition is met; {@code false} otherwise.
-     */
-    @Override
-    public boolean isPlayerWon() {
-        return mario.collidesWith(donkey) && mario.holdHammer();
+    private Level1Screen(Properties gameProps, Level1Simulation level) {
+        super(gameProps, level);
+        this.level = level;
     }
 
     /**
-     * Determines whether the game is over.
+     * Renders the current state of Level 1.
      *
-     * if Mario collides with Donkey Kong while not holding a hammer;
-     * if Mario collides with a non-destroyed barrel while not holding a hammer;
-     * or if the game timer runs out.
-     *
-     * @return {@code true} if any end condition is met; {@code false} otherwise.
+     * Draws the background and platforms, then ladders, barrels, the hammer,
+     * Donkey Kong and Mario. The score is drawn afterwards by {@link #displayInfo()}.
      */
     @Override
-    public boolean isGameOver() {
-
-        // 1) Mario and Donkey collision
-        if (mario.collidesWith(donkey) && !mario.holdHammer()) {
-            System.out.println("Mario killed by donkey.");
-            return true;
+    public void render(SpriteBatch batch) {
+        // Draw background, 1) platforms and 2) ladders, composited once they stop moving
+        getStaticLayer().draw(batch, level.getPlatforms(), level.getLadders());
+
+        // 3) Draw barrels
+        for (Barrel barrel : level.getBarrels()) {
+            if (barrel != null) {
+                barrel.draw(batch);
+            }
         }
 
-        // 2) Mario and Barrel collision
-        for (Barrel barrel : barrels) {
-            if (barrel == null) continue;
+        // 4) Draw Hammer
+        level.getHammer().draw(batch);
 
-            if (!barrel.isDestroyed() && mario.collidesWith(barrel) && !mario.holdHammer()) {
-                System.out.println("Mario killed by barrel.");
-                return true;
-            }
-        }
+        // 5) Draw donkey
+        level.getDonkey().draw(batch);
 
-        // time end
-        if (checkingGameTime()) {
-            System.out.println("Mario killed by time.");
-            return true;
-        }
-        return false;
+        // 6) Draw Mario
+        level.getMario().draw(batch);
     }
-
 }
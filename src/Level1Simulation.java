@@ -0,0 +1,294 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Properties;
+
+/**
+ * Simulates the gameplay of Level 1 without rendering it.
+ */
+public class Level1Simulation extends LevelSimulation {
+    private static final int LEVEL = 1;
+    private static final int BARREL_SCORE = 100;
+    private static final int BARREL_CROSS_SCORE = 30;
+
+    private Mario mario;
+    private ArrayList<Ladder> ladders = new ArrayList<>();
+    private ArrayList<Barrel> barrels = new ArrayList<>();
+    private Hammer hammer;
+    private Donkey donkey;
+    private Platform[] platforms;
+    private PlatformIndex platformIndex;
+
+
+    public Level1Simulation(Properties gameProps) {
+        this(LevelDefinition.compile(gameProps, LEVEL));
+    }
+
+    public Level1Simulation(LevelDefinition definition) {
+        super(definition);
+        initializeLevel1GameObjects();
+    }
+
+    /**
+     * Constructs a copy of a level at the same tick, for {@link #fork()}.
+     * Each entity of Level 1 keeps its own store, so each is copied with a copy of its store.
+     *
+     * @param source the level to copy
+     */
+    private Level1Simulation(Level1Simulation source) {
+        super(source);
+        this.mario = new Mario(source.mario);
+        this.donkey = new Donkey(source.donkey);
+        this.hammer = new Hammer(source.hammer);
+        this.ladders = new ArrayList<>(source.ladders.size());
+        for (Ladder ladder : source.ladders) {
+            ladders.add(new Ladder(ladder, ladder.getStore().copy()));
+        }
+        this.barrels = new ArrayList<>(source.barrels.size());
+        for (Barrel barrel : source.barrels) {
+            barrels.add(new Barrel(barrel, barrel.getStore().copy()));
+        }
+        // Platforms never move, so the copy shares them
+        this.platforms = source.platforms;
+        this.platformIndex = source.platformIndex;
+    }
+
+    @Override
+    public Level1Simulation fork() {
+        return new Level1Simulation(this);
+    }
+
+    /**
+     * Returns the current level number for this gameplay screen.
+     *
+     * @return the integer constant LEVEL (1 for Level1Simulation)
+     */
+    @Override
+    public int getLevel() {
+        return LEVEL;
+    }
+
+    /**
+     * Advances the game state by one tick for Level 1 gameplay.
+     *
+     * This method increments the frame counter, updates ladders, barrels
+     * handles hammer's collection and Mario’s update
+     * then updates Donkey Kong.
+     * After all updates, it checks for end‐of‐game or victory conditions.
+     *
+     * @param input the keys held and pressed during this tick
+     * @return {@code true} if the game is over or the player has won; {@code false} otherwise
+     */
+    @Override
+    public boolean step(FrameInput input) {
+
+        // count current frame
+        setCurrFrame(getCurrFrame() + 1);
+        FrameMetrics metrics = getMetrics();
+        long time = metrics.start();
+
+        // 1) Platforms never move
+
+        // 2) Update ladders
+        for (Ladder ladder : ladders) {
+            if (ladder != null) {
+                ladder.update(platformIndex);
+            }
+        }
+        time = metrics.record(FramePhase.LADDERS, time);
+
+        // 3) Update barrels
+        for (Barrel barrel : barrels) {
+            if (barrel == null) continue;
+
+            if (mario.jumpOver(barrel)) {
+                addScore(BARREL_CROSS_SCORE);
+                break;
+            }
+
+            if (!barrel.isDestroyed() && mario.collidesWith(barrel)) {
+                if (mario.holdHammer()) {
+                    barrel.changeState(mario);
+                    addScore(BARREL_SCORE);
+                }
+            }
+            barrel.update(platformIndex);
+        }
+        time = metrics.record(FramePhase.BARRELS, time);
+
+        // 4) update Hammer
+        if (!hammer.isCollected() && mario.collidesWith(hammer)) {
+            mario.changeState(hammer);
+        }
+        time = metrics.record(FramePhase.HAMMER, time);
+
+        // 5) update donkey
+        donkey.update(platformIndex);
+        time = metrics.record(FramePhase.DONKEY, time);
+
+        // 6) Update Mario
+        mario.updateLevel1(input, ladders, platformIndex);
+        time = metrics.record(FramePhase.MARIO, time);
+
+        // 7) Return game state
+        boolean isFinished = updateEndState();
+        metrics.record(FramePhase.END_CHECK, time);
+        return isFinished;
+    }
+
+    @Override
+    protected void writeEntities(DataOutputStream out) throws IOException {
+        mario.writeState(out);
+        donkey.writeState(out);
+        hammer.writeState(out);
+        writeEntities(ladders, out);
+        writeEntities(barrels, out);
+    }
+
+    @Override
+    protected void readEntities(DataInputStream in) throws IOException {
+        mario.readState(in);
+        donkey.readState(in);
+        hammer.readState(in);
+        readEntities(ladders, in);
+        readEntities(barrels, in);
+    }
+
+    /**
+     * Initializes game objects for level 1 such as Mario, Donkey Kong, barrels, ladders, platforms, and the hammer.
+     */
+    public void initializeLevel1GameObjects() {
+        this.barrels   = new ArrayList<>();
+        this.ladders   = new ArrayList<>();
+
+        // 1) Create Mario
+        LevelDefinition definition = getDefinition();
+        this.mario = new Mario(definition.getMarioX(), definition.getMarioY(), getScreenWidth(), getScreenHeight());
+
+        // 2) Create Donkey Kong
+        this.donkey = new Donkey(definition.getDonkeyX(), definition.getDonkeyY());
+
+        // 3) Create the Barrels array
+        for (int i = 0; i < definition.getBarrelCount(); i++) {
+            barrels.add(new Barrel(definition.getBarrelX(i), definition.getBarrelY(i)));
+        }
+
+        // 4) Create the Ladders array
+        for (int i = 0; i < definition.getLadderCount(); i++) {
+            ladders.add(new Ladder(definition.getLadderX(i), definition.getLadderY(i)));
+        }
+
+        // 5) Create the Platforms array
+        this.platforms = new Platform[definition.getPlatformCount()];
+        for (int i = 0; i < platforms.length; i++) {
+            platforms[i] = new Platform(definition.getPlatformX(i), definition.getPlatformY(i));
+        }
+        this.platformIndex = new PlatformIndex(platforms);  // Platforms never move, so index them once
+
+        // 6) Create Hammer
+        this.hammer = new Hammer(definition.getHammerX(), definition.getHammerY());
+    }
+
+
+    /**
+     * Returns the player character.
+     * @return Mario
+     */
+    @Override
+    public Mario getMario() {
+        return mario;
+    }
+
+    /**
+     * Returns Donkey Kong.
+     * @return the Donkey
+     */
+    @Override
+    public Donkey getDonkey() {
+        return donkey;
+    }
+
+    /**
+     * Returns the hammer of this level.
+     * @return the Hammer
+     */
+    @Override
+    public Hammer getHammer() {
+        return hammer;
+    }
+
+    /**
+     * Returns the platforms of this level. Callers must not modify the array.
+     * @return the platforms
+     */
+    @Override
+    public Platform[] getPlatforms() {
+        return platforms;
+    }
+
+    /**
+     * Returns the ladders of this level. Callers must not modify the list.
+     * @return the ladders
+     */
+    @Override
+    public ArrayList<Ladder> getLadders() {
+        return ladders;
+    }
+
+    /**
+     * Returns the barrels of this level. Callers must not modify the list.
+     * @return the barrels
+     */
+    public ArrayList<Barrel> getBarrels() {
+        return barrels;
+    }
+
+    /**
+     * Checks whether the player has won the level.
+     * The player wins if Mario reaches Donkey Kong while holding a hammer.
+     *
+     * @return {@code true} if the win condition is met; {@code false} otherwise.
+     */
+    @Override
+    protected boolean checkPlayerWon() {
+        return mario.collidesWith(donkey) && mario.holdHammer();
+    }
+
+    /**
+     * Determines whether the game is over.
+     *
+     * if Mario collides with Donkey Kong while not holding a hammer;
+     * if Mario collides with a non-destroyed barrel while not holding a hammer;
+     * or if the game timer runs out.
+     *
+     * @return {@code true} if any end condition is met; {@code false} otherwise.
+     */
+    @Override
+    protected boolean checkGameOver() {
+
+        // 1) Mario and Donkey collision
+        if (mario.collidesWith(donkey) && !mario.holdHammer()) {
+            GameLog.log(GameEvent.MARIO_KILLED_BY_DONKEY);
+            return true;
+        }
+
+        // 2) Mario and Barrel collision
+        for (Barrel barrel : barrels) {
+            if (barrel == null) continue;
+
+            if (!barrel.isDestroyed() && mario.collidesWith(barrel) && !mario.holdHammer()) {
+                GameLog.log(GameEvent.MARIO_KILLED_BY_BARREL);
+                return true;
+            }
+        }
+
+        // time end
+        if (checkingGameTime()) {
+            GameLog.log(GameEvent.MARIO_KILLED_BY_TIME);
+            return true;
+        }
+        return false;
+    }
+
+}
@@ -1,46 +1,31 @@
-import bagel.Input;
 import java.util.Properties;
-import java.util.ArrayList;
 
 /**
  * Represents the gameplay screen for Level 2.
+ * Draws the state of a {@link Level2Simulation} after every tick.
  */
 public class Level2Screen extends GamePlayScreen {
-    private static final int LEVEL = 2;
-    private static final int BARREL_SCORE = 100;
-    private static final int BARREL_CROSS_SCORE = 30;
-    private static final int MONKEY_SCORE = 100;
     private static final int BULLET_COUNT_DIFF_Y = 30;
 
-    private Mario mario;
-    private Hammer hammer;
-    private Donkey donkey;
-    private Platform[] platforms;
-    private ArrayList<Ladder> ladders = new ArrayList<>();
-    private ArrayList<Barrel> barrels = new ArrayList<>();
-    private ArrayList<Banana> bananas = new ArrayList<>();
-    private ArrayList<Blaster> blasters = new ArrayList<>();
-    private ArrayList<Bullet> bullets = new ArrayList<>();
-    private ArrayList<Monkey> monkeys = new ArrayList<>();
-
-    private double healthX;
-    private double healthY;
-
+    private final Level2Simulation level;
+    private final double healthX;
+    private final double healthY;
 
     public Level2Screen(Properties gameProps, int startingScore) {
-        super(gameProps);
-        initializeLevel2GameObjects();
-        this.addScore(startingScore);
+        this(gameProps, new Level2Simulation(gameProps, startingScore));
     }
 
-    /**
-     * Returns the current level number for this gameplay screen.
-     *
-     * @return the integer constant LEVEL (2 for Level2Screen)
-     */
-    @Override
-    public int getLevel() {
-        return LEVEL;
+    public Level2Screen(Properties gameProps, LevelDefinition definition, int startingScore) {
+        this(gameProps, new Level2Simulation(definition, startingScore));
+    }
+
+    private Level2Screen(Properties gameProps, Level2Simulation level) {
+        super(gameProps, level);
+        this.level = level;
+
+        String[] donkeyHealth = gameProps.getProperty("gamePlay.donkeyhealth.coords").split(",");
+        this.healthX = Double.parseDouble(donkeyHealth[0]);
+        this.healthY = Double.parseDouble(donkeyHealth[1]);
     }
 
     /**
@@ -54,377 +39,58 @@ public class Level2Screen extends GamePlayScreen {
     public void displayInfo() {
         super.displayInfo();
 
-        String healthText = "DONKEY HEALTH " + donkey.getHealth();
+        String healthText = "DONKEY HEALTH " + level.getDonkey().getHealth();
         getStatusFont().drawString(healthText, healthX, healthY);
 
-        String text = "BULLETS " + mario.getBulletsCount();
+        String text = "BULLETS " + level.getMario().getBulletsCount();
         getStatusFont().drawString(text, healthX, healthY + BULLET_COUNT_DIFF_Y);
     }
 
-
     /**
-     * Advances the game state by one frame for Level 2 gameplay.
-     *
-     * This method increments the frame counter, renders the background and platforms,
-     * updates ladders, barrels , bullets , and each monkey and bananas
-     * handles hammer and blaster pickups and Mario’s update
-     * then updates Donkey Kong, and finally displays the score.
-     * After all updates, it checks for end‐of‐game or victory conditions.
+     * Renders the current state of Level 2.
      *
-     * @param input the current keyboard and mouse input state
-     * @return {@code true} if the game is over or the player has won; {@code false} otherwise
-     */
-    public boolean update(Input input) {
-
-        // count current frame
-        setCurrFrame(getCurrFrame() + 1);
-
-        // 1) Draw background
-        getBackground().drawFromTopLeft(0, 0);
-
-        // 2) Draw platforms
-        for (Platform platform : platforms) {
-            if (platform != null) {
-                platform.draw();
-            }
-        }
-
-        // 3) Update ladders
-        for (Ladder ladder : ladders) {
-            if (ladder != null) {
-                ladder.update(platforms);
-            }
-        }
-
-        // 4) Update barrels and collisions
-        for (Barrel barrel : barrels) {
-            if (barrel == null) continue;
-
-            if (mario.jumpOver(barrel)) {
-                addScore(BARREL_CROSS_SCORE);
-                break;
-            }
-
-            if (!barrel.isDestroyed() && mario.collidesWith(barrel)) {
-                if (mario.holdHammer()) {
-                    barrel.changeState(mario);
-                    addScore(BARREL_SCORE);
-                }
-            }
-            barrel.update(platforms);
-        }
-
-        // 5) update bullets and collisions
-        for (int i = bullets.size() - 1; i >= 0; i--) {
-
-            Bullet bullet = bullets.get(i);
-
-            if (!bullet.isAlive()) {
-                bullets.remove(i);
-                continue;
-            }
-
-            // bullet collide with donkey
-            if (bullet.collidesWith(donkey)) {
-                donkey.changeState(bullet);
-                bullet.changeState(donkey);
-                bullets.remove(i);
-                continue;
-            }
-
-            // bullet collide with monkey
-            for (Monkey monkey : monkeys) {
-                if (!monkey.isAlive()) {
-                    continue;
-                }
-                if (bullet.collidesWith(monkey)) {
-                    monkey.changeState(bullet);
-                    bullet.changeState(monkey);
-                    addScore(MONKEY_SCORE);
-                    break;
-                }
-            }
-
-            // bullet collide with platform
-            for (Platform platform : platforms) {
-                if (bullet.collidesWith(platform)) {
-                    bullet.changeState(platform);
-                    bullets.remove(i);
-                    i--;
-                    break;
-                }
-            }
-            bullet.update();
-        }
-
-        // 6) update monkey
-        for (Monkey monkey : monkeys) {
-            if (!monkey.isAlive()) {
-                continue;
-            }
-
-            // mario collide with monkey
-            if (monkey.collidesWith(mario) && mario.holdHammer()) {
-                monkey.changeState(mario);
-                addScore(MONKEY_SCORE);
-                System.out.println("Mario killed a monkey using hammer.");
-                break;
-            }
-
-            monkey.update(platforms);
-
-            // intelligent monkey shoot banana
-            if (monkey instanceof IntelligentMonkey) {
-                IntelligentMonkey intel = (IntelligentMonkey) monkey;
-                if (intel.shouldShoot()) {
-                    bananas.add(intel.shootBanana());
-                }
-            }
-        }
-
-        // 7) update banana
-        for (Banana banana : bananas) {
-            banana.update();
-        }
-
-        // 8) update Hammer
-        if (!hammer.isCollected() && mario.collidesWith(hammer)) {
-            mario.changeState(hammer);
-        }
-        hammer.update();
-
-        // 9) update blaster
-        for (Blaster blaster : blasters) {
-
-            if (!blaster.isCollected() && mario.collidesWith(blaster)) {
-                mario.changeState(blaster);
-            }
-            blaster.update();
-        }
-
-        // 10) Update Mario
-        mario.updateLevel2(input, ladders, platforms, bullets);
-
-        // 11) Update Donkey
-        donkey.update(platforms);
-
-        // Display score and time left
-        displayInfo();
-
-        // Return game state
-        return isGameOver() || isPlayerWon();
-
-    }
-
-    /**
-     * Checks whether the player has won the level.
-     * The player wins if Mario reaches Donkey Kong while holding a hammer,
-     * or if Donkey Kong's health has been reduced to zero or below.
-     *
-     * @return {@code true} if the win condition is met; {@code false} otherwise.
-     */
-    @Override
-    public boolean isPlayerWon() {
-
-        // Win if Mario reaches Donkey with the hammer…
-        boolean reachedWithHammer = mario.collidesWith(donkey) && mario.holdHammer();
-        // …or if Donkey’s health has dropped to zero
-        boolean donkeyDefeated   = donkey.getHealth() <= 0;
-
-        return reachedWithHammer || donkeyDefeated;
-    }
-
-    /**
-     * Determines whether the game is over.
-     *
-     * The game ends if Mario collides with a living monkey while not holding a hammer;
-     * if Mario is hit by an active banana;
-     * if Mario collides with Donkey Kong while not holding a hammer;
-     * if Mario collides with a non-destroyed barrel while not holding a hammer;
-     * or if the game timer runs out.
-     *
-     * @return {@code true} if any end condition is met; {@code false} otherwise.
+     * Draws the background and platforms, then ladders, barrels, bullets, monkeys, bananas,
+     * the hammer and blasters, Mario and Donkey Kong. The score is drawn afterwards by {@link #displayInfo()}.
      */
     @Override
-    public boolean isGameOver() {
-
-        // 1) Mario and Monkey collision
-        for (Monkey monkey : monkeys) {
-            if (monkey.isAlive() && mario.collidesWith(monkey) && !mario.holdHammer()) {
-                System.out.println("Mario killed by monkey.");
-                return true;
-            }
-        }
+    public void render(SpriteBatch batch) {
+        // 1) Draw background, 2) platforms and 3) ladders, composited once they stop moving
+        getStaticLayer().draw(batch, level.getPlatforms(), level.getLadders());
 
-        // 2) Mario and Banana collision
-        for (Banana banana : bananas) {
-            if (banana.isActive() && banana.collidesWith(mario)) {
-                System.out.println("Mario killed by banana.");
-                return true;
+        // 4) Draw barrels
+        for (Barrel barrel : level.getBarrels()) {
+            if (barrel != null) {
+                barrel.draw(batch);
             }
         }
 
-        // 3) Mario and Donkey collision
-        if (mario.collidesWith(donkey) && !mario.holdHammer()) {
-            System.out.println("Mario killed by donkey.");
-            return true;
+        // 5) Draw bullets
+        for (Bullet bullet : level.getBullets()) {
+            bullet.draw(batch);
         }
 
-        // 3) Mario and Barrel collision
-        for (Barrel barrel : barrels) {
-            if (barrel == null) continue;
-
-            if (!barrel.isDestroyed() && mario.collidesWith(barrel) && !mario.holdHammer()) {
-                System.out.println("Mario killed by barrel.");
-                return true;
-            }
+        // 6) Draw monkeys
+        for (Monkey monkey : level.getMonkeys()) {
+            monkey.draw(batch);
         }
 
-        // time end
-        if (checkingGameTime()) {
-            System.out.println("Mario killed by time.");
-            return true;
+        // 7) Draw bananas
+        for (Banana banana : level.getBananas()) {
+            banana.draw(batch);
         }
-        return false;
-    }
-
-    /**
-     * Initializes all objects needed for level 2 such as Mario, Donkey Kong, barrels, ladders, platforms, hammer
-     * blaster, bullet, monkey, and banana
-     */
-    public void initializeLevel2GameObjects() {
-        this.barrels   = new ArrayList<>();
-        this.ladders   = new ArrayList<>();
-        this.monkeys   = new ArrayList<>();
-        this.bananas   = new ArrayList<>();
-        this.bullets   = new ArrayList<>();
-        this.blasters  = new ArrayList<>();
-
-        // 1) Create Mario
-        Properties gameProps = getGameProps();
-        String[] marioPos = gameProps.getProperty("mario.level2").split(",");
-        double marioX = Double.parseDouble(marioPos[0]);
-        double marioY = Double.parseDouble(marioPos[1]);
-        this.mario = new Mario(marioX, marioY);
 
-        // 2) Create Donkey Kong
-        String[] donkeyPos = gameProps.getProperty("donkey.level2").split(",");
-        double donkeyX = Double.parseDouble(donkeyPos[0]);
-        double donkeyY = Double.parseDouble(donkeyPos[1]);
-        this.donkey = new Donkey(donkeyX, donkeyY);
+        // 8) Draw Hammer
+        level.getHammer().draw(batch);
 
-        String[] donkeyHealth = gameProps.getProperty("gamePlay.donkeyhealth.coords").split(",");
-        this.healthX = Double.parseDouble(donkeyHealth[0]);
-        this.healthY = Double.parseDouble(donkeyHealth[1]);
-
-        // 3) Create the Barrels array
-        int barrelCount = Integer.parseInt(gameProps.getProperty("barrel.level2.count"));
-        for (int i = 1; i <= barrelCount; i++) {
-            String data = gameProps.getProperty("barrel.level2." + i);
-            if (data == null) continue;
-            String[] coord = data.split(",");
-            double x = Double.parseDouble(coord[0]);
-            double y = Double.parseDouble(coord[1]);
-            barrels.add(new Barrel(x, y));
-        }
-
-        // 4) Create the Ladders array
-        int ladderCount = Integer.parseInt(gameProps.getProperty("ladder.level2.count"));
-        for (int i = 1; i <= ladderCount; i++) {
-            String data = gameProps.getProperty("ladder.level2." + i);
-            if (data == null) continue;
-            String[] coord = data.split(",");
-            double x = Double.parseDouble(coord[0]);
-            double y = Double.parseDouble(coord[1]);
-            ladders.add(new Ladder(x, y));
-        }
-
-        // 5) Create the Platforms array
-        String[] platformEntries = gameProps.getProperty("platforms.level2").split(";");
-        platforms = new Platform[platformEntries.length];
-        for (int i = 0; i < platformEntries.length; i++) {
-            String entry = platformEntries[i].trim();
-            String[] coord = entry.split(",");
-            double x = Double.parseDouble(coord[0]);
-            double y = Double.parseDouble(coord[1]);
-            platforms[i] = new Platform(x, y);
-        }
-
-        // 6) Create Hammer
-        String[] hammerCoords = gameProps.getProperty("hammer.level2.1").split(",");
-        double hammerX = Double.parseDouble(hammerCoords[0]);
-        double hammerY = Double.parseDouble(hammerCoords[1]);
-        this.hammer = new Hammer(hammerX, hammerY);
-
-        // 9) Create the Blasters array
-        int blastCount = Integer.parseInt(gameProps.getProperty("blaster.level2.count"));
-        for (int i = 1; i <= blastCount; i++) {
-            String data = gameProps.getProperty("blaster.level2." + i);
-            if (data == null) continue;
-            String[] coord = data.split(",");
-            double x = Double.parseDouble(coord[0]);
-            double y = Double.parseDouble(coord[1]);
-            blasters.add(new Blaster(x, y, true));
+        // 9) Draw blasters
+        for (Blaster blaster : level.getBlasters()) {
+            blaster.draw(batch);
         }
 
-        // 10) create intelligent monkey
-        int intelligentCount = Integer.parseInt(gameProps.getProperty("intelligentMonkey.level2.count"));
-        for (int i = 1; i <= intelligentCount; i++) {
-            String monkeyData = gameProps.getProperty("intelligentMonkey.level2." + i);
-            if (monkeyData != null) {
-                String[] parts = monkeyData.split(";");
-                if (parts.length < 3) {
-                    System.out.println("Warning: Incomplete data for intelligentMonkey." + i);
-                    continue;
-                }
-
-                String[] coords = parts[0].split(",");
-                double x = Double.parseDouble(coords[0]);
-                double y = Double.parseDouble(coords[1]);
-
-                String direction = parts[1];
-
-                String[] routeStr = parts[2].split(",");
-                int[] patrolPath = new int[routeStr.length];
-                for (int j = 0; j < routeStr.length; j++) {
-                    patrolPath[j] = Integer.parseInt(routeStr[j]);
-                }
-
-                IntelligentMonkey monkey = new IntelligentMonkey(x, y, direction, patrolPath, platforms);
-                monkeys.add(monkey);
-            }
-        }
-
-        // 11)  create normal monkey
-        int normalCount = Integer.parseInt(gameProps.getProperty("normalMonkey.level2.count"));
-        for (int i = 1; i <= normalCount; i++) {
-            String monkeyData = gameProps.getProperty("normalMonkey.level2." + i);
-            if (monkeyData != null) {
-                String[] parts = monkeyData.split(";");
-                if (parts.length < 3) {
-                    System.out.println("Warning: Incomplete data for normalMonkey." + i);
-                    continue;
-                }
-
-                String[] coords = parts[0].split(",");
-                double x = Double.parseDouble(coords[0]);
-                double y = Double.parseDouble(coords[1]);
-
-                String direction = parts[1];
-
-                String[] routeStr = parts[2].split(",");
-                int[] patrolPath = new int[routeStr.length];
-                for (int j = 0; j < routeStr.length; j++) {
-                    patrolPath[j] = Integer.parseInt(routeStr[j]);
-                }
-
-                NormalMonkey monkey = new NormalMonkey(x, y, direction, patrolPath, platforms);
-                monkeys.add(monkey);
-            }
-        }
+        // 10) Draw Mario
+        level.getMario().draw(batch);
 
+        // 11) Draw Donkey
+        level.getDonkey().draw(batch);
     }
-
 }
-
-
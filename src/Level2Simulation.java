@@ -0,0 +1,719 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.ArrayList;
+
+/**
+ * Simulates the gameplay of Level 2 without rendering it.
+ */
+public class Level2Simulation extends LevelSimulation {
+    private static final int LEVEL = 2;
+    private static final int BARREL_SCORE = 100;
+    private static final int BARREL_CROSS_SCORE = 30;
+    private static final int MONKEY_SCORE = 100;
+    private static final double GRID_CELL_SIZE = 64;
+    private static final int ENTITY_CAPACITY = 64;
+
+    private Mario mario;
+    private Hammer hammer;
+    private Donkey donkey;
+    private Platform[] platforms;
+    private PlatformIndex platformIndex;
+    private ArrayList<Ladder> ladders = new ArrayList<>();
+    private ArrayList<Barrel> barrels = new ArrayList<>();
+    private ProjectilePool<Banana> bananas;
+    private ArrayList<Blaster> blasters = new ArrayList<>();
+    private ProjectilePool<Bullet> bullets;
+    private ArrayList<Monkey> monkeys = new ArrayList<>();
+
+    // Barrels, ladders, monkeys and projectiles keep their state here, each kind in a run of slots
+    private EntityStore entities;
+    private int firstBarrelSlot;
+    private int firstLadderSlot;
+    private int firstMonkeySlot;
+
+    // Broad phase for every collision query; hazards are re-indexed at the end of each tick
+    private final SpatialGrid<Barrel> barrelGrid;
+    private final SpatialGrid<Monkey> monkeyGrid;
+    private final SpatialGrid<Banana> bananaGrid;
+    private final ArrayList<Barrel> nearbyBarrels = new ArrayList<>();
+    private final ArrayList<Monkey> nearbyMonkeys = new ArrayList<>();
+    private final ArrayList<Banana> nearbyBananas = new ArrayList<>();
+    private final CollisionQueue bulletCollisions = new CollisionQueue();
+
+    // Per-entity work of the update phases, run through the phase executor
+    private final PhaseExecutor.RangeAction fallSlots =
+            (from, to) -> entities.applyGravity(from, to, platformIndex);
+    private final PhaseExecutor.RangeAction moveMonkeySlots = this::moveMonkeys;
+    private final PhaseExecutor.RangeAction advanceBananas = this::advanceBananas;
+
+
+    public Level2Simulation(Properties gameProps, int startingScore) {
+        this(LevelDefinition.compile(gameProps, LEVEL), startingScore);
+    }
+
+    public Level2Simulation(LevelDefinition definition, int startingScore) {
+        super(definition);
+        this.barrelGrid = new SpatialGrid<>(getScreenWidth(), getScreenHeight(), GRID_CELL_SIZE);
+        this.monkeyGrid = new SpatialGrid<>(getScreenWidth(), getScreenHeight(), GRID_CELL_SIZE);
+        this.bananaGrid = new SpatialGrid<>(getScreenWidth(), getScreenHeight(), GRID_CELL_SIZE);
+        initializeLevel2GameObjects();
+        this.addScore(startingScore);
+    }
+
+    /**
+     * Constructs a copy of a level at the same tick, for {@link #fork()}.
+     * The copied entities share one copy of the source's store, and the grids are rebuilt from it.
+     *
+     * @param source the level to copy
+     */
+    private Level2Simulation(Level2Simulation source) {
+        super(source);
+        this.barrelGrid = new SpatialGrid<>(source.barrelGrid);
+        this.monkeyGrid = new SpatialGrid<>(source.monkeyGrid);
+        this.bananaGrid = new SpatialGrid<>(source.bananaGrid);
+        this.entities = source.entities.copy();
+        this.firstBarrelSlot = source.firstBarrelSlot;
+        this.firstLadderSlot = source.firstLadderSlot;
+        this.firstMonkeySlot = source.firstMonkeySlot;
+
+        this.mario = new Mario(source.mario);
+        this.donkey = new Donkey(source.donkey);
+        this.hammer = new Hammer(source.hammer);
+        // Platforms never move, so the copy shares them
+        this.platforms = source.platforms;
+        this.platformIndex = source.platformIndex;
+        this.ladders = new ArrayList<>(source.ladders.size());
+        for (Ladder ladder : source.ladders) {
+            ladders.add(new Ladder(ladder, entities));
+        }
+        this.barrels = new ArrayList<>(source.barrels.size());
+        for (Barrel barrel : source.barrels) {
+            barrels.add(new Barrel(barrel, entities));
+        }
+        this.blasters = new ArrayList<>(source.blasters.size());
+        for (Blaster blaster : source.blasters) {
+            blasters.add(new Blaster(blaster));
+        }
+        this.monkeys = new ArrayList<>(source.monkeys.size());
+        for (Monkey monkey : source.monkeys) {
+            monkeys.add(monkey.copy(entities));
+        }
+        this.bullets = new ProjectilePool<>(source.bullets, bullet -> new Bullet(bullet, entities));
+        this.bananas = new ProjectilePool<>(source.bananas, banana -> new Banana(banana, entities));
+        indexHazards();
+    }
+
+    @Override
+    public Level2Simulation fork() {
+        return new Level2Simulation(this);
+    }
+
+    /**
+     * Returns the current level number for this gameplay screen.
+     *
+     * @return the integer constant LEVEL (2 for Level2Simulation)
+     */
+    @Override
+    public int getLevel() {
+        return LEVEL;
+    }
+
+    /**
+     * Advances the game state by one tick for Level 2 gameplay.
+     *
+     * This method increments the frame counter,
+     * updates ladders, barrels , bullets , and each monkey and bananas
+     * handles hammer and blaster pickups and Mario’s update
+     * then updates Donkey Kong.
+     * After all updates, it checks for end‐of‐game or victory conditions.
+     *
+     * @param input the keys held and pressed during this tick
+     * @return {@code true} if the game is over or the player has won; {@code false} otherwise
+     */
+    @Override
+    public boolean step(FrameInput input) {
+
+        // count current frame
+        setCurrFrame(getCurrFrame() + 1);
+        FrameMetrics metrics = getMetrics();
+        long time = metrics.start();
+
+        // 1) Background and 2) platforms never change
+
+        // 3) Update ladders
+        PhaseExecutor phases = getPhaseExecutor();
+        if (phases != PhaseExecutor.SERIAL) {
+            entities.ensureWritable();  // Workers must not race to copy arrays shared with a fork
+        }
+        phases.forEach(firstLadderSlot, firstLadderSlot + ladders.size(), fallSlots);
+        time = metrics.record(FramePhase.LADDERS, time);
+
+        // 4) Update barrels and collisions
+        // Barrels have not moved since they were indexed, so look up the one Mario is
+        // jumping over and the ones he is touching before updating them in order
+        Barrel jumpedBarrel = null;
+        nearbyBarrels.clear();
+        mario.findJumpOverCandidates(barrelGrid, nearbyBarrels);
+        for (Barrel barrel : nearbyBarrels) {
+            if (mario.jumpOver(barrel)) {
+                jumpedBarrel = barrel;
+                break;
+            }
+        }
+        nearbyBarrels.clear();
+        if (mario.holdHammer()) {
+            barrelGrid.query(mario, nearbyBarrels);
+        }
+        // Each barrel only falls on its own, so smash them first and then let every barrel
+        // before the one Mario jumps over fall in one pass
+        int nextHit = 0;
+        int fallingBarrels = barrels.size();
+        for (int i = 0; i < barrels.size(); i++) {
+            Barrel barrel = barrels.get(i);
+
+            if (barrel == jumpedBarrel) {
+                addScore(BARREL_CROSS_SCORE);
+                fallingBarrels = i;
+                break;
+            }
+
+            if (nextHit < nearbyBarrels.size() && nearbyBarrels.get(nextHit) == barrel) {
+                nextHit++;
+                if (!barrel.isDestroyed()) {
+                    barrel.changeState(mario);
+                    addScore(BARREL_SCORE);
+                }
+            }
+        }
+        phases.forEach(firstBarrelSlot, firstBarrelSlot + fallingBarrels, fallSlots);
+        time = metrics.record(FramePhase.BARRELS, time);
+
+        // 5) update bullets and collisions
+        updateBullets();
+        time = metrics.record(FramePhase.BULLETS, time);
+
+        // 6) update monkey
+        // Monkeys have not moved since they were indexed, so find the one Mario smashes first
+        Monkey smashedMonkey = null;
+        if (mario.holdHammer()) {
+            nearbyMonkeys.clear();
+            monkeyGrid.query(mario, nearbyMonkeys);
+            for (Monkey monkey : nearbyMonkeys) {
+                if (monkey.isAlive()) {
+                    smashedMonkey = monkey;
+                    break;
+                }
+            }
+        }
+        // Only the monkeys before the smashed one move this tick
+        int movingMonkeys = monkeys.size();
+        if (smashedMonkey != null) {
+            // mario collide with monkey
+            smashedMonkey.changeState(mario);
+            addScore(MONKEY_SCORE);
+            GameLog.log(GameEvent.MONKEY_SMASHED);
+            movingMonkeys = monkeys.indexOf(smashedMonkey);
+        }
+        phases.forEach(firstMonkeySlot, firstMonkeySlot + movingMonkeys, moveMonkeySlots);
+        // Launch the bananas in monkey order once every monkey has moved; a shot only
+        // depends on the monkey that fires it
+        for (int i = 0; i < movingMonkeys; i++) {
+            Monkey monkey = monkeys.get(i);
+            if (!monkey.isAlive()) {
+                continue;
+            }
+
+            // intelligent monkey shoot banana
+            if (monkey instanceof IntelligentMonkey) {
+                IntelligentMonkey intel = (IntelligentMonkey) monkey;
+                if (intel.shouldShoot()) {
+                    intel.shootBanana(bananas);
+                }
+            }
+        }
+        time = metrics.record(FramePhase.MONKEYS, time);
+
+        // 7) update banana, returning the ones that reached their range to the pool
+        phases.forEach(0, bananas.size(), advanceBananas);
+        for (int i = bananas.size() - 1; i >= 0; i--) {
+            Banana banana = bananas.get(i);
+            banana.landIfSpent();
+            if (!banana.isActive()) {
+                bananas.release(i);
+            }
+        }
+        time = metrics.record(FramePhase.BANANAS, time);
+
+        // 8) update Hammer
+        if (!hammer.isCollected() && mario.collidesWith(hammer)) {
+            mario.changeState(hammer);
+        }
+        time = metrics.record(FramePhase.HAMMER, time);
+
+        // 9) update blaster
+        for (Blaster blaster : blasters) {
+
+            if (!blaster.isCollected() && mario.collidesWith(blaster)) {
+                mario.changeState(blaster);
+            }
+        }
+        time = metrics.record(FramePhase.BLASTER, time);
+
+        // 10) Update Mario
+        mario.updateLevel2(input, ladders, platformIndex, bullets);
+        time = metrics.record(FramePhase.MARIO, time);
+
+        // 11) Update Donkey
+        donkey.update(platformIndex);
+        time = metrics.record(FramePhase.DONKEY, time);
+
+        // Index the hazards at their final positions for this tick
+        indexHazards();
+
+        // Return game state
+        boolean isFinished = updateEndState();
+        metrics.record(FramePhase.END_CHECK, time);
+        return isFinished;
+
+    }
+
+    /**
+     * Applies gravity to a run of monkey slots and moves the live monkeys among them.
+     * Each monkey only changes its own state, so runs can be processed in parallel.
+     *
+     * @param from the first monkey slot
+     * @param to   the slot after the last monkey to update
+     */
+    private void moveMonkeys(int from, int to) {
+        entities.applyGravity(from, to, platformIndex);
+        for (int slot = from; slot < to; slot++) {
+            Monkey monkey = monkeys.get(slot - firstMonkeySlot);
+            if (monkey.isAlive()) {
+                monkey.move();
+            }
+        }
+    }
+
+    /**
+     * Moves the bananas in flight in a range of the pool's active list, without landing them.
+     *
+     * @param from the index of the first banana
+     * @param to   the index after the last banana
+     */
+    private void advanceBananas(int from, int to) {
+        for (int i = from; i < to; i++) {
+            bananas.get(i).advance();
+        }
+    }
+
+    /**
+     * Moves the bullets in flight and resolves their collisions with Donkey Kong, monkeys and platforms,
+     * returning spent bullets to the pool.
+     */
+    void updateBullets() {
+        detectBulletCollisions();
+        resolveBulletCollisions();
+    }
+
+    /**
+     * Tests every live bullet once against Donkey Kong, the live monkeys and the platforms,
+     * queueing a collision event per hit. Bullets are visited from the last to the first, the
+     * order their collisions are resolved in.
+     *
+     * Nothing resolved before a bullet can move it, Donkey Kong or a platform, so testing all
+     * bullets up front finds the same hits as testing each one just before it is resolved.
+     * Monkeys can die in between, so every live monkey a bullet overlaps is queued and the
+     * resolution picks the first one still alive. Each bullet is tested over the whole path of
+     * its last move, so a bullet faster than its targets are wide cannot skip over one.
+     */
+    private void detectBulletCollisions() {
+        bulletCollisions.clear();
+        for (int i = bullets.size() - 1; i >= 0; i--) {
+            Bullet bullet = bullets.get(i);
+            if (!bullet.isAlive()) {
+                continue;
+            }
+
+            // bullet collide with donkey
+            if (bullet.collidesWith(donkey)) {
+                bulletCollisions.add(CollisionQueue.BULLET_DONKEY, i, 0);
+                continue;
+            }
+
+            // bullet collide with monkey; monkeys hold consecutive slots in list order
+            nearbyMonkeys.clear();
+            monkeyGrid.query(bullet, nearbyMonkeys);
+            for (Monkey monkey : nearbyMonkeys) {
+                if (monkey.isAlive()) {
+                    bulletCollisions.add(CollisionQueue.BULLET_MONKEY, i, monkey.getSlot() - firstMonkeySlot);
+                }
+            }
+
+            // bullet collide with platform
+            int hitPlatform = platformIndex.firstIntersecting(bullet.getSweptLeft(), bullet.getTop(),
+                    bullet.getSweptRight(), bullet.getBottom());
+            if (hitPlatform >= 0) {
+                bulletCollisions.add(CollisionQueue.BULLET_PLATFORM, i, hitPlatform);
+            }
+        }
+    }
+
+    /**
+     * Applies the queued bullet collisions from the last bullet to the first, then moves the
+     * bullets that are still flying and returns spent ones to the pool. Every bullet's queued
+     * events are resolved every tick, whatever happened to the other bullets.
+     */
+    private void resolveBulletCollisions() {
+        for (int i = bullets.size() - 1; i >= 0; i--) {
+
+            Bullet bullet = bullets.get(i);
+
+            if (!bullet.isAlive()) {
+                bullets.release(i);
+                continue;
+            }
+
+            boolean hitMonkey = false;
+            boolean hitDonkey = false;
+            boolean hitPlatform = false;
+            while (!bulletCollisions.isEmpty() && bulletCollisions.peekFirst() == i) {
+                int type = bulletCollisions.peekType();
+                int other = bulletCollisions.peekSecond();
+                bulletCollisions.remove();
+
+                if (type == CollisionQueue.BULLET_DONKEY) {
+                    donkey.changeState(bullet);
+                    bullet.changeState(donkey);
+                    hitDonkey = true;
+                } else if (type == CollisionQueue.BULLET_MONKEY) {
+                    // An earlier bullet may have killed this monkey already
+                    Monkey monkey = monkeys.get(other);
+                    if (!hitMonkey && monkey.isAlive()) {
+                        monkey.changeState(bullet);
+                        bullet.changeState(monkey);
+                        addScore(MONKEY_SCORE);
+                        hitMonkey = true;
+                    }
+                } else if (type == CollisionQueue.BULLET_PLATFORM) {
+                    bullet.changeState(platformIndex.get(other));
+                    hitPlatform = true;
+                }
+            }
+
+            if (hitDonkey) {
+                bullets.release(i);
+                continue;
+            }
+            if (hitPlatform) {
+                bullets.release(i);
+                continue;
+            }
+            bullet.update();
+        }
+    }
+
+    /**
+     * Returns the player character.
+     * @return Mario
+     */
+    @Override
+    public Mario getMario() {
+        return mario;
+    }
+
+    /**
+     * Returns Donkey Kong.
+     * @return the Donkey
+     */
+    @Override
+    public Donkey getDonkey() {
+        return donkey;
+    }
+
+    /**
+     * Returns the hammer of this level.
+     * @return the Hammer
+     */
+    @Override
+    public Hammer getHammer() {
+        return hammer;
+    }
+
+    /**
+     * Returns the platforms of this level. Callers must not modify the array.
+     * @return the platforms
+     */
+    @Override
+    public Platform[] getPlatforms() {
+        return platforms;
+    }
+
+    /**
+     * Returns the ladders of this level. Callers must not modify the list.
+     * @return the ladders
+     */
+    @Override
+    public ArrayList<Ladder> getLadders() {
+        return ladders;
+    }
+
+    /**
+     * Returns the barrels of this level. Callers must not modify the list.
+     * @return the barrels
+     */
+    public ArrayList<Barrel> getBarrels() {
+        return barrels;
+    }
+
+    /**
+     * Returns the bananas in flight. Callers must not modify the list.
+     * @return the bananas
+     */
+    public ArrayList<Banana> getBananas() {
+        return bananas.getActive();
+    }
+
+    /**
+     * Returns the blasters of this level. Callers must not modify the list.
+     * @return the blasters
+     */
+    public ArrayList<Blaster> getBlasters() {
+        return blasters;
+    }
+
+    /**
+     * Returns the bullets in flight. Callers must not modify the list.
+     * @return the bullets
+     */
+    public ArrayList<Bullet> getBullets() {
+        return bullets.getActive();
+    }
+
+    /**
+     * Returns the pool the bullets are fired from, so benchmarks can put bullets in flight.
+     * @return the bullet pool
+     */
+    ProjectilePool<Bullet> getBulletPool() {
+        return bullets;
+    }
+
+    /**
+     * Returns the monkeys of this level. Callers must not modify the list.
+     * @return the monkeys
+     */
+    public ArrayList<Monkey> getMonkeys() {
+        return monkeys;
+    }
+
+    /**
+     * Checks whether the player has won the level.
+     * The player wins if Mario reaches Donkey Kong while holding a hammer,
+     * or if Donkey Kong's health has been reduced to zero or below.
+     *
+     * @return {@code true} if the win condition is met; {@code false} otherwise.
+     */
+    @Override
+    protected boolean checkPlayerWon() {
+
+        // Win if Mario reaches Donkey with the hammer…
+        boolean reachedWithHammer = mario.collidesWith(donkey) && mario.holdHammer();
+        // …or if Donkey’s health has dropped to zero
+        boolean donkeyDefeated   = donkey.getHealth() <= 0;
+
+        return reachedWithHammer || donkeyDefeated;
+    }
+
+    /**
+     * Determines whether the game is over.
+     *
+     * The game ends if Mario collides with a living monkey while not holding a hammer;
+     * if Mario is hit by an active banana;
+     * if Mario collides with Donkey Kong while not holding a hammer;
+     * if Mario collides with a non-destroyed barrel while not holding a hammer;
+     * or if the game timer runs out.
+     *
+     * @return {@code true} if any end condition is met; {@code false} otherwise.
+     */
+    @Override
+    protected boolean checkGameOver() {
+
+        // 1) Mario and Monkey collision
+        if (!mario.holdHammer()) {
+            nearbyMonkeys.clear();
+            monkeyGrid.query(mario, nearbyMonkeys);
+            for (Monkey monkey : nearbyMonkeys) {
+                if (monkey.isAlive()) {
+                    GameLog.log(GameEvent.MARIO_KILLED_BY_MONKEY);
+                    return true;
+                }
+            }
+        }
+
+        // 2) Mario and Banana collision
+        nearbyBananas.clear();
+        bananaGrid.query(mario, nearbyBananas);
+        for (Banana banana : nearbyBananas) {
+            if (banana.isActive()) {
+                GameLog.log(GameEvent.MARIO_KILLED_BY_BANANA);
+                return true;
+            }
+        }
+
+        // 3) Mario and Donkey collision
+        if (mario.collidesWith(donkey) && !mario.holdHammer()) {
+            GameLog.log(GameEvent.MARIO_KILLED_BY_DONKEY);
+            return true;
+        }
+
+        // 3) Mario and Barrel collision
+        if (!mario.holdHammer()) {
+            nearbyBarrels.clear();
+            barrelGrid.query(mario, nearbyBarrels);
+            for (Barrel barrel : nearbyBarrels) {
+                if (!barrel.isDestroyed()) {
+                    GameLog.log(GameEvent.MARIO_KILLED_BY_BARREL);
+                    return true;
+                }
+            }
+        }
+
+        // time end
+        if (checkingGameTime()) {
+            GameLog.log(GameEvent.MARIO_KILLED_BY_TIME);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void writeEntities(DataOutputStream out) throws IOException {
+        mario.writeState(out);
+        donkey.writeState(out);
+        hammer.writeState(out);
+        writeEntities(ladders, out);
+        writeEntities(barrels, out);
+        writeEntities(blasters, out);
+        writeEntities(monkeys, out);
+        bullets.writeState(out);
+        bananas.writeState(out);
+    }
+
+    @Override
+    protected void readEntities(DataInputStream in) throws IOException {
+        mario.readState(in);
+        donkey.readState(in);
+        hammer.readState(in);
+        readEntities(ladders, in);
+        readEntities(barrels, in);
+        readEntities(blasters, in);
+        readEntities(monkeys, in);
+        bullets.readState(in);
+        bananas.readState(in);
+        indexHazards();
+    }
+
+    /**
+     * Rebuilds the broad-phase grids of barrels, monkeys and bananas from their current positions.
+     * Entities that can no longer collide are left out.
+     */
+    private void indexHazards() {
+        barrelGrid.clear();
+        for (Barrel barrel : barrels) {
+            if (barrel != null && !barrel.isDestroyed()) {
+                barrelGrid.insert(barrel);
+            }
+        }
+
+        monkeyGrid.clear();
+        for (Monkey monkey : monkeys) {
+            if (monkey.isAlive()) {
+                monkeyGrid.insert(monkey);
+            }
+        }
+
+        bananaGrid.clear();
+        for (Banana banana : bananas.getActive()) {
+            if (banana.isActive()) {
+                bananaGrid.insert(banana);
+            }
+        }
+    }
+
+    /**
+     * Initializes all objects needed for level 2 such as Mario, Donkey Kong, barrels, ladders, platforms, hammer
+     * blaster, bullet, monkey, and banana
+     */
+    public void initializeLevel2GameObjects() {
+        this.barrels   = new ArrayList<>();
+        this.ladders   = new ArrayList<>();
+        this.monkeys   = new ArrayList<>();
+        this.blasters  = new ArrayList<>();
+        this.entities  = new EntityStore(ENTITY_CAPACITY);
+
+        // 1) Create Mario
+        LevelDefinition definition = getDefinition();
+        this.mario = new Mario(definition.getMarioX(), definition.getMarioY(), getScreenWidth(), getScreenHeight());
+
+        // 2) Create Donkey Kong
+        this.donkey = new Donkey(definition.getDonkeyX(), definition.getDonkeyY());
+
+        // 3) Create the Barrels array
+        firstBarrelSlot = entities.size();
+        for (int i = 0; i < definition.getBarrelCount(); i++) {
+            barrels.add(new Barrel(entities, definition.getBarrelX(i), definition.getBarrelY(i)));
+        }
+
+        // 4) Create the Ladders array
+        firstLadderSlot = entities.size();
+        for (int i = 0; i < definition.getLadderCount(); i++) {
+            ladders.add(new Ladder(entities, definition.getLadderX(i), definition.getLadderY(i)));
+        }
+
+        // 5) Create the Platforms array
+        platforms = new Platform[definition.getPlatformCount()];
+        for (int i = 0; i < platforms.length; i++) {
+            platforms[i] = new Platform(definition.getPlatformX(i), definition.getPlatformY(i));
+        }
+        platformIndex = new PlatformIndex(platforms);  // Platforms never move, so index them once
+
+        // 6) Create Hammer
+        this.hammer = new Hammer(definition.getHammerX(), definition.getHammerY());
+
+        // 9) Create the Blasters array
+        for (int i = 0; i < definition.getBlasterCount(); i++) {
+            blasters.add(new Blaster(definition.getBlasterX(i), definition.getBlasterY(i), true));
+        }
+
+        // 10) and 11) Create the intelligent monkeys, then the normal ones
+        int shooterCount = 0;
+        firstMonkeySlot = entities.size();
+        for (int i = 0; i < definition.getMonkeyCount(); i++) {
+            double x = definition.getMonkeyX(i);
+            double y = definition.getMonkeyY(i);
+            String direction = definition.getMonkeyDirection(i);
+            int[] patrolPath = definition.getMonkeyRoute(i);
+            if (definition.isIntelligentMonkey(i)) {
+                monkeys.add(new IntelligentMonkey(entities, x, y, direction, patrolPath, platformIndex,
+                        getScreenWidth()));
+                shooterCount++;
+            } else {
+                monkeys.add(new NormalMonkey(entities, x, y, direction, patrolPath, platformIndex,
+                        getScreenWidth()));
+            }
+        }
+
+        // 12) Create the projectile pools, sized so that no shot is ever dropped
+        this.bullets = new ProjectilePool<>(blasters.size() * Mario.TOTAL_BULLETS,
+                () -> new Bullet(entities));
+        this.bananas = new ProjectilePool<>(shooterCount * IntelligentMonkey.MAX_BANANAS_IN_FLIGHT,
+                () -> new Banana(entities));
+
+        // 13) Index the hazards at their starting positions
+        indexHazards();
+    }
+
+}
+
+
@@ -0,0 +1,445 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The starting layout of one level, compiled once from the game properties.
+ *
+ * Every position and monkey route is parsed up front into primitive arrays, so starting
+ * or restarting a level only has to create the game objects. A definition never changes
+ * after it is compiled and can be shared between any number of simulations, on any thread.
+ * Definitions can also be written to a binary snapshot and read back without parsing text.
+ */
+public class LevelDefinition {
+    private static final int MAGIC = 0x444B4C56; // "DKLV"
+    private static final int VERSION = 1;
+
+    // The properties a level is compiled from; fonts, logging and runner settings do not change how it plays
+    private static final String[] SIMULATION_KEYS = {"window.width", "window.height", "gamePlay.maxFrames"};
+    private static final String[] SIMULATION_PREFIXES = {"mario.", "donkey.", "hammer.", "platforms.", "barrel.",
+            "ladder.", "blaster.", "normalMonkey.", "intelligentMonkey."};
+
+    private final int level;
+    private final int maxFrames;
+    private final int screenWidth;
+    private final int screenHeight;
+    private final double marioX;
+    private final double marioY;
+    private final double donkeyX;
+    private final double donkeyY;
+    private final double hammerX;
+    private final double hammerY;
+
+    // Positions are stored as x,y pairs
+    private final double[] platforms;
+    private final double[] barrels;
+    private final double[] ladders;
+    private final double[] blasters;
+
+    // Intelligent monkeys come first, in the order they are configured
+    private final double[] monkeys;
+    private final String[] monkeyDirections;
+    private final int[][] monkeyRoutes;
+    private final int intelligentMonkeyCount;
+    private final int layoutHash;
+
+    private LevelDefinition(int level, int maxFrames, int screenWidth, int screenHeight,
+                            double marioX, double marioY, double donkeyX, double donkeyY,
+                            double hammerX, double hammerY, double[] platforms, double[] barrels,
+                            double[] ladders, double[] blasters, double[] monkeys,
+                            String[] monkeyDirections, int[][] monkeyRoutes, int intelligentMonkeyCount) {
+        this.level = level;
+        this.maxFrames = maxFrames;
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.marioX = marioX;
+        this.marioY = marioY;
+        this.donkeyX = donkeyX;
+        this.donkeyY = donkeyY;
+        this.hammerX = hammerX;
+        this.hammerY = hammerY;
+        this.platforms = platforms;
+        this.barrels = barrels;
+        this.ladders = ladders;
+        this.blasters = blasters;
+        this.monkeys = monkeys;
+        this.monkeyDirections = monkeyDirections;
+        this.monkeyRoutes = monkeyRoutes;
+        this.intelligentMonkeyCount = intelligentMonkeyCount;
+        this.layoutHash = hashLayout();
+    }
+
+    /**
+     * @return a CRC of the definition's binary form
+     */
+    private int hashLayout() {
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(OutputStream.nullOutputStream(), crc))) {
+            writeTo(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);  // Writing nowhere does not fail
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Parses the layout of one level from the game properties.
+     * Entries that are missing are skipped, and a missing count means there are none.
+     *
+     * @param gameProps Properties file containing game settings.
+     * @param level     the level number
+     * @return the compiled level
+     */
+    public static LevelDefinition compile(Properties gameProps, int level) {
+        String suffix = ".level" + level;
+        double[] mario = parsePosition(gameProps.getProperty("mario" + suffix));
+        double[] donkey = parsePosition(gameProps.getProperty("donkey" + suffix));
+        double[] hammer = parsePosition(gameProps.getProperty("hammer" + suffix + ".1"));
+
+        // Platforms are all on one line, separated by semicolons
+        ArrayList<double[]> platforms = new ArrayList<>();
+        String platformData = gameProps.getProperty("platforms" + suffix);
+        if (platformData != null && !platformData.isEmpty()) {
+            String[] entries = platformData.split(";");
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].trim().split(",").length < 2) {
+                    GameLog.log(GameEvent.INVALID_PLATFORM_ENTRY, i + 1);
+                    continue; // Skip invalid entries
+                }
+                platforms.add(parsePosition(entries[i].trim()));
+            }
+        }
+
+        // Monkeys: position;direction;route
+        ArrayList<double[]> monkeyPositions = new ArrayList<>();
+        ArrayList<String> monkeyDirections = new ArrayList<>();
+        ArrayList<int[]> monkeyRoutes = new ArrayList<>();
+        String[] monkeyKinds = {"intelligentMonkey", "normalMonkey"};
+        int intelligentMonkeyCount = 0;
+        for (String kind : monkeyKinds) {
+            int count = parseCount(gameProps, kind + suffix);
+            for (int i = 1; i <= count; i++) {
+                String monkeyData = gameProps.getProperty(kind + suffix + "." + i);
+                if (monkeyData == null) continue;
+                String[] parts = monkeyData.split(";");
+                if (parts.length < 3) {
+                    GameLog.log(kind.equals(monkeyKinds[0])
+                            ? GameEvent.INCOMPLETE_INTELLIGENT_MONKEY : GameEvent.INCOMPLETE_NORMAL_MONKEY, i);
+                    continue;
+                }
+                String[] routeStr = parts[2].split(",");
+                int[] route = new int[routeStr.length];
+                for (int j = 0; j < routeStr.length; j++) {
+                    route[j] = Integer.parseInt(routeStr[j]);
+                }
+                monkeyPositions.add(parsePosition(parts[0]));
+                monkeyDirections.add(parts[1]);
+                monkeyRoutes.add(route);
+            }
+            if (kind.equals(monkeyKinds[0])) {
+                intelligentMonkeyCount = monkeyPositions.size();
+            }
+        }
+
+        return new LevelDefinition(level,
+                Integer.parseInt(gameProps.getProperty("gamePlay.maxFrames")),
+                Integer.parseInt(gameProps.getProperty("window.width")),
+                Integer.parseInt(gameProps.getProperty("window.height")),
+                mario[0], mario[1], donkey[0], donkey[1], hammer[0], hammer[1],
+                flatten(platforms),
+                parsePositions(gameProps, "barrel" + suffix),
+                parsePositions(gameProps, "ladder" + suffix),
+                parsePositions(gameProps, "blaster" + suffix),
+                flatten(monkeyPositions),
+                monkeyDirections.toArray(new String[0]),
+                monkeyRoutes.toArray(new int[0][]),
+                intelligentMonkeyCount);
+    }
+
+    /** @return the level number */
+    public int getLevel() { return level; }
+
+    /** @return a hash of the whole layout, so states saved from one level can be told apart from another's */
+    public int getLayoutHash() { return layoutHash; }
+
+    /** @return the number of ticks before the level runs out of time */
+    public int getMaxFrames() { return maxFrames; }
+
+    /** @return the width of the play area */
+    public int getScreenWidth() { return screenWidth; }
+
+    /** @return the height of the play area */
+    public int getScreenHeight() { return screenHeight; }
+
+    public double getMarioX() { return marioX; }
+
+    public double getMarioY() { return marioY; }
+
+    public double getDonkeyX() { return donkeyX; }
+
+    public double getDonkeyY() { return donkeyY; }
+
+    public double getHammerX() { return hammerX; }
+
+    public double getHammerY() { return hammerY; }
+
+    public int getPlatformCount() { return platforms.length / 2; }
+
+    public double getPlatformX(int i) { return platforms[2 * i]; }
+
+    public double getPlatformY(int i) { return platforms[2 * i + 1]; }
+
+    public int getBarrelCount() { return barrels.length / 2; }
+
+    public double getBarrelX(int i) { return barrels[2 * i]; }
+
+    public double getBarrelY(int i) { return barrels[2 * i + 1]; }
+
+    public int getLadderCount() { return ladders.length / 2; }
+
+    public double getLadderX(int i) { return ladders[2 * i]; }
+
+    public double getLadderY(int i) { return ladders[2 * i + 1]; }
+
+    public int getBlasterCount() { return blasters.length / 2; }
+
+    public double getBlasterX(int i) { return blasters[2 * i]; }
+
+    public double getBlasterY(int i) { return blasters[2 * i + 1]; }
+
+    /** @return the number of monkeys of both kinds */
+    public int getMonkeyCount() { return monkeyDirections.length; }
+
+    /**
+     * Returns whether a monkey throws bananas. Intelligent monkeys come before normal ones.
+     *
+     * @param i the index of the monkey
+     * @return {@code true} for an intelligent monkey; {@code false} for a normal one
+     */
+    public boolean isIntelligentMonkey(int i) { return i < intelligentMonkeyCount; }
+
+    public double getMonkeyX(int i) { return monkeys[2 * i]; }
+
+    public double getMonkeyY(int i) { return monkeys[2 * i + 1]; }
+
+    /**
+     * Returns the direction a monkey starts walking in.
+     *
+     * @param i the index of the monkey
+     * @return "left" or "right"
+     */
+    public String getMonkeyDirection(int i) { return monkeyDirections[i]; }
+
+    /**
+     * Returns the patrol route of a monkey.
+     *
+     * @param i the index of the monkey
+     * @return a copy of the distances the monkey walks before turning around
+     */
+    public int[] getMonkeyRoute(int i) { return monkeyRoutes[i].clone(); }
+
+    /**
+     * Writes the definition in its binary form.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(level);
+        out.writeInt(maxFrames);
+        out.writeInt(screenWidth);
+        out.writeInt(screenHeight);
+        out.writeDouble(marioX);
+        out.writeDouble(marioY);
+        out.writeDouble(donkeyX);
+        out.writeDouble(donkeyY);
+        out.writeDouble(hammerX);
+        out.writeDouble(hammerY);
+        writeDoubles(out, platforms);
+        writeDoubles(out, barrels);
+        writeDoubles(out, ladders);
+        writeDoubles(out, blasters);
+        writeDoubles(out, monkeys);
+        out.writeInt(intelligentMonkeyCount);
+        for (int i = 0; i < monkeyDirections.length; i++) {
+            out.writeUTF(monkeyDirections[i]);
+            out.writeInt(monkeyRoutes[i].length);
+            for (int distance : monkeyRoutes[i]) {
+                out.writeInt(distance);
+            }
+        }
+    }
+
+    /**
+     * Reads a definition written by {@link #writeTo(DataOutputStream)}.
+     *
+     * @param in the stream to read from
+     * @return the definition
+     * @throws IOException if the stream cannot be read
+     */
+    public static LevelDefinition readFrom(DataInputStream in) throws IOException {
+        int level = in.readInt();
+        int maxFrames = in.readInt();
+        int screenWidth = in.readInt();
+        int screenHeight = in.readInt();
+        double marioX = in.readDouble();
+        double marioY = in.readDouble();
+        double donkeyX = in.readDouble();
+        double donkeyY = in.readDouble();
+        double hammerX = in.readDouble();
+        double hammerY = in.readDouble();
+        double[] platforms = readDoubles(in);
+        double[] barrels = readDoubles(in);
+        double[] ladders = readDoubles(in);
+        double[] blasters = readDoubles(in);
+        double[] monkeys = readDoubles(in);
+        int intelligentMonkeyCount = in.readInt();
+        String[] monkeyDirections = new String[monkeys.length / 2];
+        int[][] monkeyRoutes = new int[monkeyDirections.length][];
+        for (int i = 0; i < monkeyDirections.length; i++) {
+            monkeyDirections[i] = in.readUTF();
+            monkeyRoutes[i] = new int[in.readInt()];
+            for (int j = 0; j < monkeyRoutes[i].length; j++) {
+                monkeyRoutes[i][j] = in.readInt();
+            }
+        }
+        return new LevelDefinition(level, maxFrames, screenWidth, screenHeight, marioX, marioY,
+                donkeyX, donkeyY, hammerX, hammerY, platforms, barrels, ladders, blasters, monkeys,
+                monkeyDirections, monkeyRoutes, intelligentMonkeyCount);
+    }
+
+    /**
+     * Writes a snapshot of several levels, tagged with the hash of the properties they were compiled from.
+     *
+     * @param out        the stream to write to
+     * @param configHash the {@link #configHash(Properties)} of the game properties
+     * @param levels     the levels to write
+     * @throws IOException if the stream cannot be written
+     */
+    public static void writeSnapshot(DataOutputStream out, int configHash, LevelDefinition[] levels)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(configHash);
+        out.writeInt(levels.length);
+        for (LevelDefinition level : levels) {
+            level.writeTo(out);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #writeSnapshot(DataOutputStream, int, LevelDefinition[])}.
+     *
+     * @param in         the stream to read from
+     * @param configHash the {@link #configHash(Properties)} of the current game properties
+     * @return the levels, or {@code null} if the snapshot was compiled from different properties
+     * @throws IOException if the stream cannot be read or does not hold a snapshot
+     */
+    public static LevelDefinition[] readSnapshot(DataInputStream in, int configHash) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a level snapshot");
+        }
+        if (in.readShort() != VERSION || in.readInt() != configHash) {
+            return null;
+        }
+        LevelDefinition[] levels = new LevelDefinition[in.readInt()];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = readFrom(in);
+        }
+        return levels;
+    }
+
+    /**
+     * Hashes the game properties that levels are compiled from, so that anything derived from them
+     * can tell whether it is being used with the layout and rules it was made with. Settings that do
+     * not change how a level plays, such as fonts, the log level, the replay directory or the thread
+     * count, are left out. The order the properties were loaded in does not matter.
+     *
+     * @param gameProps Properties file containing game settings.
+     * @return the hash
+     */
+    public static int configHash(Properties gameProps) {
+        TreeMap<String, String> sorted = new TreeMap<>();
+        for (String key : gameProps.stringPropertyNames()) {
+            if (isSimulationKey(key)) {
+                sorted.put(key, gameProps.getProperty(key));
+            }
+        }
+        CRC32 crc = new CRC32();
+        for (Map.Entry<String, String> entry : sorted.entrySet()) {
+            crc.update((entry.getKey() + '=' + entry.getValue() + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        return (int) crc.getValue();
+    }
+
+    private static boolean isSimulationKey(String key) {
+        for (String simulationKey : SIMULATION_KEYS) {
+            if (key.equals(simulationKey)) {
+                return true;
+            }
+        }
+        for (String prefix : SIMULATION_PREFIXES) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double[] parsePosition(String data) {
+        String[] coord = data.split(",");
+        return new double[] {Double.parseDouble(coord[0]), Double.parseDouble(coord[1])};
+    }
+
+    /**
+     * Parses the numbered positions under a key, e.g. {@code barrel.level1.1} to {@code barrel.level1.5}.
+     */
+    private static double[] parsePositions(Properties gameProps, String key) {
+        ArrayList<double[]> positions = new ArrayList<>();
+        int count = parseCount(gameProps, key);
+        for (int i = 1; i <= count; i++) {
+            String data = gameProps.getProperty(key + "." + i);
+            if (data == null) continue;
+            positions.add(parsePosition(data));
+        }
+        return flatten(positions);
+    }
+
+    private static int parseCount(Properties gameProps, String key) {
+        String count = gameProps.getProperty(key + ".count");
+        return count == null ? 0 : Integer.parseInt(count);
+    }
+
+    private static double[] flatten(ArrayList<double[]> positions) {
+        double[] flat = new double[positions.size() * 2];
+        for (int i = 0; i < positions.size(); i++) {
+            flat[2 * i] = positions.get(i)[0];
+            flat[2 * i + 1] = positions.get(i)[1];
+        }
+        return flat;
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static double[] readDoubles(DataInputStream in) throws IOException {
+        double[] values = new double[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,416 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The render-free core of a level.
+ *
+ * A simulation owns every game object of a level and advances them by exactly one
+ * fixed-length tick per call to {@link #step(FrameInput)}. It never touches Bagel's
+ * window or images, so it can run without an OpenGL context; the matching
+ * {@link GamePlayScreen} only reads its state to draw a frame.
+ */
+public abstract class LevelSimulation {
+    /**
+     * The number of ticks that make up one second of game time.
+     */
+    public static final int TICKS_PER_SECOND = 60;
+
+    private static final int STATE_MAGIC = 0x444B5354;  // "DKST"
+
+    private final LevelDefinition DEFINITION;
+    // Game parameters
+    private final int MAX_FRAMES;  // Maximum number of frames before game ends
+    private final double SCREEN_WIDTH;
+    private final double SCREEN_HEIGHT;
+
+    // Frame tracking
+    private int currFrame = 0;  // Tracks the number of frames elapsed
+    private int score = 0;  // Player's score for jumping over barrels
+    private boolean isPlayerWon = false;  // End conditions as of the last tick
+    private boolean isGameOver = false;
+    private final FrameMetrics metrics = new FrameMetrics();
+    private PhaseExecutor phaseExecutor = PhaseExecutor.SERIAL;
+
+    /**
+     * Constructs the simulation, loading the parameters shared by every level.
+     *
+     * @param definition the compiled layout of the level
+     */
+    public LevelSimulation(LevelDefinition definition) {
+        this.DEFINITION = definition;
+        this.MAX_FRAMES = definition.getMaxFrames();
+        this.SCREEN_WIDTH = definition.getScreenWidth();
+        this.SCREEN_HEIGHT = definition.getScreenHeight();
+    }
+
+    /**
+     * Constructs a copy of a simulation at the same tick, for {@link #fork()}. The copy starts
+     * with its own, empty frame metrics and shares the source's phase executor.
+     *
+     * @param source the simulation to copy
+     */
+    protected LevelSimulation(LevelSimulation source) {
+        this.DEFINITION = source.DEFINITION;
+        this.MAX_FRAMES = source.MAX_FRAMES;
+        this.SCREEN_WIDTH = source.SCREEN_WIDTH;
+        this.SCREEN_HEIGHT = source.SCREEN_HEIGHT;
+        this.currFrame = source.currFrame;
+        this.score = source.score;
+        this.isPlayerWon = source.isPlayerWon;
+        this.isGameOver = source.isGameOver;
+        this.phaseExecutor = source.phaseExecutor;
+    }
+
+    /**
+     * Creates the simulation of the given level.
+     *
+     * @param level         the level number, 1 or 2
+     * @param gameProps     Properties file containing game settings.
+     * @param startingScore the score carried into the level; ignored by Level 1
+     * @return a new simulation at its first tick
+     */
+    public static LevelSimulation create(int level, Properties gameProps, int startingScore) {
+        return create(LevelDefinition.compile(gameProps, level), startingScore);
+    }
+
+    /**
+     * Creates the simulation of a compiled level.
+     *
+     * @param definition    the compiled layout of level 1 or 2
+     * @param startingScore the score carried into the level; ignored by Level 1
+     * @return a new simulation at its first tick
+     */
+    public static LevelSimulation create(LevelDefinition definition, int startingScore) {
+        if (definition.getLevel() == 1) {
+            return new Level1Simulation(definition);
+        }
+        return new Level2Simulation(definition, startingScore);
+    }
+
+    /**
+     * Creates a simulation of a compiled level and restores it to a saved state.
+     *
+     * @param definition the compiled layout the state was saved from
+     * @param state      the state, as returned by {@link #saveState()}
+     * @return a new simulation continuing from the saved tick
+     */
+    public static LevelSimulation restore(LevelDefinition definition, byte[] state) {
+        LevelSimulation level = create(definition, 0);
+        level.restoreState(state);
+        return level;
+    }
+
+    /**
+     * Saves the complete state of the level after its last tick: the timer, score and end state,
+     * and the state of every game object, including projectiles waiting in their pools.
+     * Restoring it into a simulation of the same level definition continues exactly where this one is.
+     *
+     * @return the state as a compact binary snapshot
+     */
+    public byte[] saveState() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(STATE_MAGIC);
+            out.writeInt(getLevel());
+            out.writeInt(DEFINITION.getLayoutHash());
+            out.writeInt(currFrame);
+            out.writeInt(score);
+            out.writeBoolean(isPlayerWon);
+            out.writeBoolean(isGameOver);
+            writeEntities(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);  // Writing to memory does not fail
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Restores a state saved by {@link #saveState()} from a simulation of the same level definition.
+     * Everything the simulation had done before is discarded.
+     *
+     * @param state the state to restore
+     * @throws IllegalArgumentException if the state was saved from a different level or layout
+     */
+    public void restoreState(byte[] state) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(state))) {
+            if (in.readInt() != STATE_MAGIC || in.readInt() != getLevel()) {
+                throw new IOException("Not a saved state of level " + getLevel());
+            }
+            if (in.readInt() != DEFINITION.getLayoutHash()) {
+                throw new IOException("Saved state has a different layout");
+            }
+            currFrame = in.readInt();
+            score = in.readInt();
+            isPlayerWon = in.readBoolean();
+            isGameOver = in.readBoolean();
+            readEntities(in);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Cannot restore level state: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Creates an independent copy of the level at its current tick, for trying out moves
+     * without disturbing it. Stepping either one afterwards never affects the other.
+     *
+     * The copy is cheap: fixed layout such as the platforms is shared, and the entity store
+     * shares its arrays with the source until one of them first writes to each group of them.
+     *
+     * @return the copy
+     */
+    public abstract LevelSimulation fork();
+
+    /**
+     * Writes the state of every game object of the level.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    protected abstract void writeEntities(DataOutputStream out) throws IOException;
+
+    /**
+     * Restores the state of every game object from {@link #writeEntities(DataOutputStream)}.
+     *
+     * @param in the stream to read from
+     * @throws IOException if the stream cannot be read or holds a different layout
+     */
+    protected abstract void readEntities(DataInputStream in) throws IOException;
+
+    /**
+     * Writes the state of a list of game objects, preceded by its length.
+     *
+     * @param entities the game objects
+     * @param out      the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    protected static void writeEntities(List<? extends GameEntity> entities, DataOutputStream out) throws IOException {
+        out.writeInt(entities.size());
+        for (GameEntity entity : entities) {
+            entity.writeState(out);
+        }
+    }
+
+    /**
+     * Restores the state of a list of game objects written by {@link #writeEntities(List, DataOutputStream)}.
+     *
+     * @param entities the game objects, in the order they were written
+     * @param in       the stream to read from
+     * @throws IOException if the stream cannot be read or holds a different number of objects
+     */
+    protected static void readEntities(List<? extends GameEntity> entities, DataInputStream in) throws IOException {
+        if (in.readInt() != entities.size()) {
+            throw new IOException("Saved state has a different layout");
+        }
+        for (GameEntity entity : entities) {
+            entity.readState(in);
+        }
+    }
+
+    /**
+     * Returns the per-phase timings of this level's ticks and frames. Timing is off until enabled.
+     *
+     * @return the frame metrics
+     */
+    public FrameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the executor running the per-entity update phases of a tick.
+     *
+     * @return the phase executor; {@link PhaseExecutor#SERIAL} unless another one was set
+     */
+    public PhaseExecutor getPhaseExecutor() {
+        return phaseExecutor;
+    }
+
+    /**
+     * Sets the executor running the per-entity update phases of a tick. Levels with few
+     * entities may ignore it; either way, every tick ends exactly as it would on one thread.
+     *
+     * @param phaseExecutor the phase executor to use
+     */
+    public void setPhaseExecutor(PhaseExecutor phaseExecutor) {
+        this.phaseExecutor = phaseExecutor;
+    }
+
+    /**
+     * Advances the level by one tick.
+     *
+     * @param input the keys held and pressed during this tick
+     * @return {@code true} if the game is over or the player has won; {@code false} otherwise
+     */
+    public abstract boolean step(FrameInput input);
+
+    /**
+     * Returns the configured level number for this simulation.
+     *
+     * @return the level number
+     */
+    public abstract int getLevel();
+
+    /**
+     * Returns the player character.
+     * @return Mario
+     */
+    public abstract Mario getMario();
+
+    /**
+     * Returns Donkey Kong.
+     * @return the Donkey
+     */
+    public abstract Donkey getDonkey();
+
+    /**
+     * Returns the hammer of this level.
+     * @return the Hammer
+     */
+    public abstract Hammer getHammer();
+
+    /**
+     * Returns the platforms of this level. Callers must not modify the array.
+     * @return the platforms
+     */
+    public abstract Platform[] getPlatforms();
+
+    /**
+     * Returns the ladders of this level. Callers must not modify the list.
+     * @return the ladders
+     */
+    public abstract List<Ladder> getLadders();
+
+    /**
+     * Returns whether the player had met the win condition for this level at the end of the last tick.
+     * The condition is evaluated once per tick, so asking is free.
+     *
+     * @return {@code true} if the player has won; {@code false} otherwise
+     */
+    public boolean isPlayerWon() {
+        return isPlayerWon;
+    }
+
+    /**
+     * Returns whether the player had met the loss condition for this level at the end of the last tick.
+     * The condition is evaluated once per tick, so asking is free.
+     *
+     * @return {@code true} if the game is over (lost); {@code false} otherwise
+     */
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /**
+     * Evaluates the end conditions of the level and keeps the outcome until the next tick.
+     * Levels call this once, at the end of every tick.
+     *
+     * @return {@code true} if the game is over or the player has won; {@code false} otherwise
+     */
+    protected boolean updateEndState() {
+        isGameOver = checkGameOver();
+        isPlayerWon = checkPlayerWon();
+        return isGameOver || isPlayerWon;
+    }
+
+    /**
+     * Checks whether the player has met the win condition for this level.
+     *
+     * @return {@code true} if the player has won; {@code false} otherwise
+     */
+    protected abstract boolean checkPlayerWon();
+
+    /**
+     * Checks whether the player has met the loss condition for this level.
+     *
+     * @return {@code true} if the game is over (lost); {@code false} otherwise
+     */
+    protected abstract boolean checkGameOver();
+
+    /**
+     * Returns the player's current score.
+     *
+     * @return The player's score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Adds points to the player's score.
+     *
+     * @param points the number of points to add
+     */
+    public void addScore(int points) {
+        score += points;
+    }
+
+    /**
+     * Calculates the remaining time left in seconds.
+     *
+     * @return The number of seconds remaining before the game ends.
+     */
+    public int getSecondsLeft() {
+        return (MAX_FRAMES - currFrame) / TICKS_PER_SECOND;
+    }
+
+    /**
+     * Checks if the game has reached its time limit by comparing the current frame count
+     * against the maximum allowed frames.
+     *
+     * @return {@code true} if the current frame count has reached or exceeded
+     *         the maximum allowed frames; {@code false} otherwise.
+     */
+    public boolean checkingGameTime() {
+        return currFrame >= MAX_FRAMES;
+    }
+
+    /**
+     * Returns the number of frames that have elapsed since this level started.
+     *
+     * @return the current frame count
+     */
+    public int getCurrFrame() {
+        return currFrame;
+    }
+
+    /**
+     * Sets the internal frame counter to the given value.
+     *
+     * @param frame the new frame count
+     */
+    public void setCurrFrame(int frame) {
+        this.currFrame = frame;
+    }
+
+    /**
+     * Returns the width of the play area.
+     *
+     * @return the width in pixels
+     */
+    public double getScreenWidth() {
+        return SCREEN_WIDTH;
+    }
+
+    /**
+     * Returns the height of the play area.
+     *
+     * @return the height in pixels
+     */
+    public double getScreenHeight() {
+        return SCREEN_HEIGHT;
+    }
+
+    /**
+     * Returns the compiled layout this level was started from.
+     *
+     * @return the level definition
+     */
+    public LevelDefinition getDefinition() {
+        return DEFINITION;
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * How much the {@link GameLog} records, from the most detail to nothing.
+ * A level records its own events and those of every level after it.
+ */
+public enum LogLevel {
+    /** Frequent events only useful when debugging, e.g. every jump. */
+    DEBUG,
+    /** Events that change the course of a game: pickups, kills and how the game ended. */
+    INFO,
+    /** Records nothing. */
+    OFF
+}
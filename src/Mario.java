@@ -1,5 +1,6 @@
-import bagel.*;
-import bagel.util.Rectangle;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 
 
@@ -12,26 +13,40 @@ public class Mario extends GameEntity{
     private boolean isJumping = false; // Whether Mario is currently jumping
     private boolean hasHammer = false; // Whether Mario has collected a hammer
     private boolean hasBlaster = false;// Whether Mario has collected a blaster
-    private final int totalBullets = 5;
+    /** The number of bullets a blaster adds. */
+    public static final int TOTAL_BULLETS = 5;
     private int bulletsCount = 0;
     private boolean isFacingRight = true;
 
-    // Mario images for different states
-    private Image marioImage;
-    private final Image MARIO_LEFT_IMAGE;
-    private final Image MARIO_HAMMER_LEFT_IMAGE;
-    private final Image MARIO_HAMMER_RIGHT_IMAGE;
-    private final Image MARIO_BLASTER_LEFT_IMAGE;
-    private final Image MARIO_BLASTER_RIGHT_IMAGE;
-    private static final Image MARIO_RIGHT_IMAGE = new Image("res/mario_right.png");
+    // Mario sprites for different states
+    private Sprite marioImage;
+    private static final Sprite MARIO_LEFT_IMAGE = SpriteCache.acquire("res/mario_left.png");
+    private static final Sprite MARIO_HAMMER_LEFT_IMAGE = SpriteCache.acquire("res/mario_hammer_left.png");
+    private static final Sprite MARIO_HAMMER_RIGHT_IMAGE = SpriteCache.acquire("res/mario_hammer_right.png");
+    private static final Sprite MARIO_BLASTER_LEFT_IMAGE = SpriteCache.acquire("res/mario_blaster_left.png");
+    private static final Sprite MARIO_BLASTER_RIGHT_IMAGE = SpriteCache.acquire("res/mario_blaster_right.png");
+    private static final Sprite MARIO_RIGHT_IMAGE = SpriteCache.acquire("res/mario_right.png");
+    // Every sprite Mario can show, numbered for save-state snapshots
+    private static final Sprite[] MARIO_IMAGES = {
+            MARIO_LEFT_IMAGE, MARIO_HAMMER_LEFT_IMAGE, MARIO_HAMMER_RIGHT_IMAGE,
+            MARIO_BLASTER_LEFT_IMAGE, MARIO_BLASTER_RIGHT_IMAGE, MARIO_RIGHT_IMAGE
+    };
 
     // Movement physics constants
     private static final double JUMP_STRENGTH = -5;
     private static final double MOVE_SPEED = 3.5;
     private static final double CLIMB_SPEED = 2;
     private static final double MARIO_GRAVITY = 0.2;
-    private static double height;
-    private static double width;
+
+    /** How far Mario's feet rise from the ground to the top of a jump. */
+    public static final double JUMP_HEIGHT = JUMP_STRENGTH * JUMP_STRENGTH / (2 * MARIO_GRAVITY);
+    /** How far Mario can move sideways while rising to the top of a jump. */
+    public static final double JUMP_DISTANCE = MOVE_SPEED * -JUMP_STRENGTH / MARIO_GRAVITY;
+
+    private double height;
+    private double width;
+    private final double screenWidth;
+    private final double screenHeight;
 
 
     /**
@@ -39,17 +54,13 @@ public class Mario extends GameEntity{
      *
      * @param x Initial x-coordinate.
      * @param y Initial y-coordinate.
+     * @param screenWidth  Width of the play area Mario is kept inside.
+     * @param screenHeight Height of the play area Mario is kept inside.
      */
-    public Mario(double x, double y) {
+    public Mario(double x, double y, double screenWidth, double screenHeight) {
         super(MARIO_RIGHT_IMAGE, x, y);
-
-        // Load images for left and right-facing Mario
-//        this.MARIO_RIGHT_IMAGE = new Image("res/mario_right.png");
-        this.MARIO_LEFT_IMAGE = new Image("res/mario_left.png");
-        this.MARIO_HAMMER_RIGHT_IMAGE = new Image("res/mario_hammer_right.png");
-        this.MARIO_HAMMER_LEFT_IMAGE = new Image("res/mario_hammer_left.png");
-        this.MARIO_BLASTER_RIGHT_IMAGE = new Image("res/mario_blaster_right.png");
-        this.MARIO_BLASTER_LEFT_IMAGE = new Image("res/mario_blaster_left.png");
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
 
         // Default Mario starts facing right
         this.marioImage = MARIO_HAMMER_RIGHT_IMAGE;
@@ -57,6 +68,26 @@ public class Mario extends GameEntity{
         height = marioImage.getHeight();
     }
 
+    /**
+     * Constructs a copy of Mario, for a copy of a level.
+     *
+     * @param source the Mario to copy
+     */
+    public Mario(Mario source) {
+        super(source, source.getStore().copy());
+        this.screenWidth = source.screenWidth;
+        this.screenHeight = source.screenHeight;
+        this.velocityY = source.velocityY;
+        this.isJumping = source.isJumping;
+        this.hasHammer = source.hasHammer;
+        this.hasBlaster = source.hasBlaster;
+        this.bulletsCount = source.bulletsCount;
+        this.isFacingRight = source.isFacingRight;
+        this.marioImage = source.marioImage;
+        this.width = source.width;
+        this.height = source.height;
+    }
+
     /**
      * Sets whether Mario has picked up the hammer.
      *
@@ -89,12 +120,12 @@ public class Mario extends GameEntity{
      * Updates Mario's movement, jumping, ladder climbing, hammer collection, and interactions.
      * This method is called every frame to process player input and update Mario's state.
      *
-     * @param input     The player's input (keyboard/mouse).
+     * @param input     The player's input for this tick.
      * @param ladders   The array of ladders in the game that Mario can climb.
-     * @param platforms The array of platforms in the game that Mario can walk on.
+     * @param platforms The index of the platforms in the game that Mario can walk on.
      */
 
-    public void updateLevel1(Input input, ArrayList<Ladder> ladders, Platform[] platforms) {
+    public void updateLevel1(FrameInput input, ArrayList<Ladder> ladders, PlatformIndex platforms) {
         handleHorizontalMovement(input); // 1) Horizontal movement
         updateLevel1Sprite(); // 2) Now replace sprite (since either isFacingRight or hasHammer could have changed)
 
@@ -103,7 +134,7 @@ public class Mario extends GameEntity{
         isOnLadder = handleLadders(input, ladders);
 
         // 4) Jump logic: if on platform (we'll detect after we move) but let's queue jump if needed
-        boolean wantsToJump = input.wasPressed(Keys.SPACE);
+        boolean wantsToJump = input.wasJumpPressed();
 
         // 5) If not on ladder, apply gravity, move Mario
         if (!isOnLadder) {
@@ -124,19 +155,19 @@ public class Mario extends GameEntity{
         // 9) Enforce horizontal screen bounds
         enforceBoundaries();
 
-        // 10) Draw Mario
-        draw();
+        // 10) Show the sprite chosen this frame
+        setSprite(marioImage);
     }
 
     /**
      * Updates Mario for level 2: includes shooting logic on top of level 1 behavior.
      *
-     * @param input     the current keyboard/mouse state
+     * @param input     the player's input for this tick
      * @param ladders   list of all ladders in the level
-     * @param platforms array of all platforms in the level
-     * @param bullets   list of active bullets in the level
+     * @param platforms index of all platforms in the level
+     * @param bullets   pool of the bullets in the level
      */
-    public void updateLevel2(Input input, ArrayList<Ladder> ladders, Platform[] platforms, ArrayList<Bullet> bullets) {
+    public void updateLevel2(FrameInput input, ArrayList<Ladder> ladders, PlatformIndex platforms, ProjectilePool<Bullet> bullets) {
         handleHorizontalMovement(input); // 1) Horizontal movement
         updateLevel2Sprite();// 4) Now replace sprite (since either isFacingRight or hasHammer or hasBlaster could have changed)
         handleShoot(input, bullets); //3) mario shoot bullet use blaster
@@ -146,7 +177,7 @@ public class Mario extends GameEntity{
         isOnLadder = handleLadders(input, ladders);
 
         // 5) Jump logic: if on platform (we'll detect after we move) but let's queue jump if needed
-        boolean wantsToJump = input.wasPressed(Keys.SPACE);
+        boolean wantsToJump = input.wasJumpPressed();
 
         // 6) If not on ladder, apply gravity, move Mario
         if (!isOnLadder) {
@@ -169,8 +200,8 @@ public class Mario extends GameEntity{
         // 10) Enforce horizontal screen bounds
         enforceBoundaries();
 
-        // 11) Draw Mario
-        draw();
+        // 11) Show the sprite chosen this frame
+        setSprite(marioImage);
     }
 
     /**
@@ -178,34 +209,31 @@ public class Mario extends GameEntity{
      * Mario will only snap to a platform if he is moving downward (velocityY >= 0),
      * preventing his jump from being interrupted in mid-air.
      *
-     * @param platforms An array of {@link Platform} objects representing the platforms in the game.
+     * @param platforms The index of the {@link Platform}s in the game.
      * @return {@code true} if Mario is standing on a platform, {@code false} otherwise.
      */
-    private boolean handlePlatforms(Platform[] platforms) {
+    private boolean handlePlatforms(PlatformIndex platforms) {
         boolean onPlatform = false;
 
         // We'll only snap Mario to a platform if he's moving downward (velocityY >= 0)
         // so we don't kill his jump in mid-air.
         if (velocityY >= 0) {
-            for (Platform platform : platforms) {
-                Rectangle marioBounds    = getBoundingBox();
-                Rectangle platformBounds = platform.getBoundingBox();
-
-                if (marioBounds.intersects(platformBounds)) {
-                    double marioBottom = marioBounds.bottom();
-                    double platformTop = platformBounds.top();
-
-                    // If Mario's bottom is at or above the platform's top
-                    // and not far below it (a small threshold based on velocity)
-                    if (marioBottom <= platformTop + velocityY) {
-                        // Snap Mario so his bottom = the platform top
-                        double newY = platformTop - (marioImage.getHeight() / 2);
-                        setY(newY);
-                        velocityY = 0;
-                        isJumping = false;
-                        onPlatform = true;
-                        break; // We found a platform collision
-                    }
+            // Platforms colliding with Mario, in the level's order
+            for (int i = platforms.firstIntersecting(getLeft(), getTop(), getRight(), getBottom()); i >= 0;
+                 i = platforms.nextIntersecting(getLeft(), getTop(), getRight(), getBottom(), i)) {
+                double marioBottom = getBottom();
+                double platformTop = platforms.get(i).getTop();
+
+                // If Mario's bottom is at or above the platform's top
+                // and not far below it (a small threshold based on velocity)
+                if (marioBottom <= platformTop + velocityY) {
+                    // Snap Mario so his bottom = the platform top
+                    double newY = platformTop - (marioImage.getHeight() / 2);
+                    setY(newY);
+                    velocityY = 0;
+                    isJumping = false;
+                    onPlatform = true;
+                    break; // We found a platform collision
                 }
             }
         }
@@ -219,19 +247,19 @@ public class Mario extends GameEntity{
      * Mario can only climb if he is within the horizontal boundaries of the ladder.
      * He stops sliding unintentionally when not pressing movement keys.
      *
-     * @param input   The {@link Input} object that checks for user key presses.
+     * @param input   The {@link FrameInput} snapshot of the keys held this tick.
      * @param ladders An array of {@link Ladder} objects representing ladders in the game.
      * @return {@code true} if Mario is on a ladder, {@code false} otherwise.
      */
-    private boolean handleLadders(Input input, ArrayList<Ladder> ladders) {
+    private boolean handleLadders(FrameInput input, ArrayList<Ladder> ladders) {
         boolean isOnLadder = false;
         for (Ladder ladder : ladders) {
-            double ladderLeft  = ladder.getBoundingBox().left();
-            double ladderRight = ladder.getBoundingBox().right();
+            double ladderLeft  = ladder.getLeft();
+            double ladderRight = ladder.getRight();
             double marioRight  = getX() + (marioImage.getWidth() / 2);
             double marioBottom = getY() + (marioImage.getHeight() / 2);
-            double ladderTop    = ladder.getBoundingBox().top();
-            double ladderBottom = ladder.getBoundingBox().bottom();
+            double ladderTop    = ladder.getTop();
+            double ladderBottom = ladder.getBottom();
 
             if (collidesWith(ladder)) {
                 // Check horizontal overlap so Mario is truly on the ladder
@@ -239,18 +267,18 @@ public class Mario extends GameEntity{
                     isOnLadder = true;
 
                     // Stop Mario from sliding up when not moving**
-                    if (!input.isDown(Keys.UP) && !input.isDown(Keys.DOWN)) {
+                    if (!input.isUpHeld() && !input.isDownHeld()) {
                         velocityY = 0;  // Prevent sliding inertia effect
                     }
 
                     // ----------- Climb UP -----------
-                    if (input.isDown(Keys.UP)) {
+                    if (input.isUpHeld()) {
                         setY(getY() - CLIMB_SPEED);
                         velocityY = 0;
                     }
 
                     // ----------- Climb DOWN -----------
-                    if (input.isDown(Keys.DOWN)) {
+                    if (input.isDownHeld()) {
                         double nextY = getY() + CLIMB_SPEED;
                         double nextBottom = nextY + (marioImage.getHeight() / 2);
 
@@ -267,11 +295,11 @@ public class Mario extends GameEntity{
                     }
                 }
 
-            } else if (marioBottom == ladderTop && input.isDown(Keys.DOWN) && (marioRight - marioImage.getWidth() / 2 > ladderLeft && marioRight - marioImage.getWidth() / 2  < ladderRight)) {
+            } else if (marioBottom == ladderTop && input.isDownHeld() && (marioRight - marioImage.getWidth() / 2 > ladderLeft && marioRight - marioImage.getWidth() / 2  < ladderRight)) {
                 double nextY = getY() + CLIMB_SPEED;
                 setY(nextY);
                 velocityY = 0; // ignore gravity
-            } else if (marioBottom == ladderBottom && input.isDown(Keys.DOWN) && (marioRight - marioImage.getWidth() / 2 > ladderLeft && marioRight - marioImage.getWidth() / 2  < ladderRight)) {
+            } else if (marioBottom == ladderBottom && input.isDownHeld() && (marioRight - marioImage.getWidth() / 2 > ladderLeft && marioRight - marioImage.getWidth() / 2  < ladderRight)) {
                 velocityY = 0; // ignore gravity
             }
         }
@@ -279,11 +307,11 @@ public class Mario extends GameEntity{
     }
 
     /** Handles horizontal movement based on player input. */
-    private void handleHorizontalMovement(Input input) {
-        if (input.isDown(Keys.LEFT)) {
+    private void handleHorizontalMovement(FrameInput input) {
+        if (input.isLeftHeld()) {
             setX(getX() - MOVE_SPEED);
             isFacingRight = false;
-        } else if (input.isDown(Keys.RIGHT)) {
+        } else if (input.isRightHeld()) {
             setX(getX() + MOVE_SPEED);
             isFacingRight = true;
         }
@@ -294,11 +322,11 @@ public class Mario extends GameEntity{
         if (onPlatform && wantsToJump) {
             velocityY = JUMP_STRENGTH;
             isJumping = true;
-            System.out.println("Jumping!");
+            GameLog.log(GameEvent.MARIO_JUMPED);
         }
         double bottomOfMario = getY() + (marioImage.getHeight() / 2);
-        if (bottomOfMario > ShadowDonkeyKong.getScreenHeight()) {
-            setY(ShadowDonkeyKong.getScreenHeight()
+        if (bottomOfMario > screenHeight) {
+            setY(screenHeight
                     - (marioImage.getHeight() / 2.0));
             velocityY = 0;
             isJumping = false;
@@ -319,7 +347,7 @@ public class Mario extends GameEntity{
         }
 
         // Prevent Mario from moving beyond the right edge of the screen
-        double maxX = ShadowDonkeyKong.getScreenWidth() - halfW;
+        double maxX = screenWidth - halfW;
         if (getX() > maxX) {
             setX(maxX);
         }
@@ -328,9 +356,9 @@ public class Mario extends GameEntity{
         double bottomOfMario = getY() + (marioImage.getHeight() / 2);
 
         // Prevent Mario from falling below the bottom of the screen
-        if (bottomOfMario > ShadowDonkeyKong.getScreenHeight()) {
+        if (bottomOfMario > screenHeight) {
             // Reposition Mario to stand on the bottom edge
-            setY(ShadowDonkeyKong.getScreenHeight() - (marioImage.getHeight() / 2));
+            setY(screenHeight - (marioImage.getHeight() / 2));
 
             // Stop vertical movement and reset jumping state
             velocityY = 0;
@@ -345,7 +373,7 @@ public class Mario extends GameEntity{
      */
     private void updateLevel1Sprite() {
         // 1) Remember the old image and its bottom
-        Image oldImage = marioImage;
+        Sprite oldImage = marioImage;
         double oldHeight = oldImage.getHeight();
         double oldBottom = getY() + (oldHeight / 2);
 
@@ -376,7 +404,7 @@ public class Mario extends GameEntity{
      */
     private void updateLevel2Sprite() {
 
-        Image oldImage = marioImage;
+        Sprite oldImage = marioImage;
         double oldBottom = getY() + oldImage.getHeight() / 2;
 
         if (hasBlaster) {
@@ -397,16 +425,6 @@ public class Mario extends GameEntity{
 
     }
 
-    /**
-     * Draws Mario on the screen.
-     */
-    public void draw() {
-        this.setImage(marioImage);
-        marioImage.draw(getX(), getY());
-//    drawBoundingBox(); // Uncomment for debugging
-    }
-
-
     /**
      * Returns the current number of bullets Mario has available to fire.
      * @return the number of remaining bullets
@@ -418,15 +436,16 @@ public class Mario extends GameEntity{
     /**
      * Attempts to fire a bullet if Mario has a blaster and ammunition.
      *
-     * @param input   current input state
-     * @param bullets list into which new Bullet objects are added
+     * @param input   the player's input for this tick
+     * @param bullets pool the fired bullet is taken from
      * @return {@code true} if a shot was fired, {@code false} otherwise
      */
-    public boolean handleShoot(Input input, ArrayList<Bullet> bullets) {
-        if (input.wasPressed(Keys.S) && hasBlaster && bulletsCount > 0) {
+    public boolean handleShoot(FrameInput input, ProjectilePool<Bullet> bullets) {
+        if (input.wasShootPressed() && hasBlaster && bulletsCount > 0) {
             boolean faceRight = isFacingRight;
-            Bullet bullet = new Bullet(getX(), getY(), faceRight);
-            bullets.add(bullet);
+            if (bullets.launch(getX(), getY(), faceRight) == null) {
+                return false;
+            }
             bulletsCount--;
 
             if (bulletsCount == 0) {
@@ -437,6 +456,23 @@ public class Mario extends GameEntity{
         return false;
     }
 
+    /**
+     * Collects the entities of a grid overlapping the area a barrel's bounding box must overlap
+     * for {@link #jumpOver(Barrel)} to succeed, so callers can test those candidates instead of
+     * every barrel. The area is padded by a pixel so rounding never drops a candidate, and is
+     * passed to the grid as plain edges so the lookup allocates nothing.
+     *
+     * @param grid the grid to search
+     * @param out  the list the candidates are added to, in insertion order
+     * @param <T>  the type of entity in the grid
+     */
+    public <T extends GameEntity> void findJumpOverCandidates(SpatialGrid<T> grid, ArrayList<T> out) {
+        double reach = height + (JUMP_STRENGTH * JUMP_STRENGTH) / (2 * MARIO_GRAVITY);
+        double left = getX() - 2;
+        double top = getY() - 1;
+        grid.query(left, top, left + 4, top + (reach + 2), out);
+    }
+
     /**
      * Determines if Mario successfully jumps over a barrel.
      *
@@ -447,7 +483,7 @@ public class Mario extends GameEntity{
         return !barrel.isDestroyed() && isJumping
                 && Math.abs(getX() - barrel.getX()) <= 1
                 && (getY() < barrel.getY())
-                && ((getY() + height / 2) >= (barrel.getY() + barrel.getImage().getHeight() / 2
+                && ((getY() + height / 2) >= (barrel.getY() + barrel.getSprite().getHeight() / 2
                 - (JUMP_STRENGTH * JUMP_STRENGTH) / (2 * MARIO_GRAVITY) - height / 2));
     }
 
@@ -458,7 +494,7 @@ public class Mario extends GameEntity{
         hasHammer = true;
         hasBlaster = false;
         bulletsCount = 0;
-        System.out.println("Hammer collected!");
+        GameLog.log(GameEvent.HAMMER_COLLECTED);
     }
 
     /** Handles collecting the blaster if Mario is in contact with it. */
@@ -467,8 +503,8 @@ public class Mario extends GameEntity{
         blaster.collect();
         hasBlaster = true;
         hasHammer = false;
-        bulletsCount += totalBullets;
-        System.out.println("Blaster collected!");
+        bulletsCount += TOTAL_BULLETS;
+        GameLog.log(GameEvent.BLASTER_COLLECTED);
     }
 
     /**
@@ -488,4 +524,45 @@ public class Mario extends GameEntity{
             collectBlaster(blaster);
         }
     }
+
+    @Override
+    public void writeState(DataOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeDouble(velocityY);
+        out.writeBoolean(isJumping);
+        out.writeBoolean(hasHammer);
+        out.writeBoolean(hasBlaster);
+        out.writeInt(bulletsCount);
+        out.writeBoolean(isFacingRight);
+        out.writeByte(imageIndex(marioImage));
+        out.writeByte(imageIndex(getSprite()));
+    }
+
+    /**
+     * @return the position of a sprite in {@link #MARIO_IMAGES}, or -1 if it is not one of them
+     */
+    private static int imageIndex(Sprite sprite) {
+        for (int i = 0; i < MARIO_IMAGES.length; i++) {
+            if (MARIO_IMAGES[i] == sprite) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void readState(DataInputStream in) throws IOException {
+        super.readState(in);
+        velocityY = in.readDouble();
+        isJumping = in.readBoolean();
+        hasHammer = in.readBoolean();
+        hasBlaster = in.readBoolean();
+        bulletsCount = in.readInt();
+        isFacingRight = in.readBoolean();
+        marioImage = MARIO_IMAGES[in.readByte()];
+        width = marioImage.getWidth();
+        height = marioImage.getHeight();
+        // The bounding box was restored with the position; this only swaps the picture
+        setSprite(MARIO_IMAGES[in.readByte()]);
+    }
 }
@@ -0,0 +1,63 @@
+import bagel.Font;
+import java.util.Properties;
+
+/**
+ * Draws the frame timings of a level on top of the game: the median, 99th and 99.9th
+ * percentile time of every {@link FramePhase}, in microseconds, and how many sprites
+ * and texture changes the last frame was drawn with.
+ *
+ * The text is rebuilt a few times a second rather than every frame, so the overlay stays
+ * readable and adds little to the frames it measures.
+ */
+public class MetricsOverlay {
+    private static final int FONT_SIZE = 14;
+    private static final int LINE_HEIGHT = 18;
+    private static final int REFRESH_FRAMES = LevelSimulation.TICKS_PER_SECOND / 4;
+    private static final FramePhase[] PHASES = FramePhase.values();
+
+    private final Font font;
+    private final double x;
+    private final double y;
+    private final String[] lines = new String[PHASES.length + 2];
+    private int framesUntilRefresh = 0;
+
+    /**
+     * Constructs the overlay, placed near the top of the right half of the window.
+     *
+     * @param gameProps Properties file containing game settings.
+     */
+    public MetricsOverlay(Properties gameProps) {
+        this.font = new Font(gameProps.getProperty("font"), FONT_SIZE);
+        this.x = Integer.parseInt(gameProps.getProperty("window.width")) / 2.0;
+        this.y = LINE_HEIGHT * 2;
+    }
+
+    /**
+     * Draws the current timings.
+     *
+     * @param metrics the timings to show
+     * @param batch   the batch the level was last drawn with
+     */
+    public void draw(FrameMetrics metrics, SpriteBatch batch) {
+        if (framesUntilRefresh-- <= 0) {
+            refresh(metrics, batch);
+            framesUntilRefresh = REFRESH_FRAMES;
+        }
+        for (int i = 0; i < lines.length; i++) {
+            font.drawString(lines[i], x, y + i * LINE_HEIGHT);
+        }
+    }
+
+    private void refresh(FrameMetrics metrics, SpriteBatch batch) {
+        lines[0] = String.format("%-10s %8s %8s %8s", "PHASE us", "p50", "p99", "p99.9");
+        for (int i = 0; i < PHASES.length; i++) {
+            FramePhase phase = PHASES[i];
+            lines[i + 1] = String.format("%-10s %8.1f %8.1f %8.1f", phase.getLabel(),
+                    metrics.getPercentile(phase, 0.5) / 1e3,
+                    metrics.getPercentile(phase, 0.99) / 1e3,
+                    metrics.getPercentile(phase, 0.999) / 1e3);
+        }
+        lines[PHASES.length + 1] = String.format("%d SPRITES, %d TEXTURES (%d UNBATCHED)",
+                batch.getDrawCount(), batch.getTextureBinds(), batch.getUnbatchedTextureBinds());
+    }
+}
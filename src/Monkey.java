@@ -1,5 +1,6 @@
-import java.util.ArrayList;
-import bagel.Image;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 
 /**
  * Abstract base class for all types of Monkey enemies.
@@ -11,76 +12,108 @@ import bagel.Image;
 public abstract class Monkey extends GravityEntity implements Movable {
     private static final double MOVE_SPEED = 0.5;
     private static final double MONKEY_GRAVITY = 0.4;
-    private final Image imageLeft;
-    private final Image imageRight;
-    private final Platform[] platforms;
+    private final Sprite spriteLeft;
+    private final Sprite spriteRight;
+    private final PlatformIndex platforms;
+    private final double screenWidth;
 
-    private ArrayList<Integer> route = new ArrayList<>();
+    // Steps of MOVE_SPEED needed to finish each segment of the patrol route
+    private final int[] segmentSteps;
     private boolean faceRight;
-    private double speed;
-    private int routeIndex = 0;
     private int directionSign = 1;
-    private double distanceTravel = 0;
-    private boolean isAlive = true;
+    private int stepsTravelled = 0;
 
+    // Edges of the platform under the monkey, looked up again only when its bottom edge moves
+    private double platformBottom = Double.NaN;
+    private boolean onPlatform;
+    private double platformLeft;
+    private double platformRight;
 
-    public Monkey(double x, double y, String direction, String routeStr, Image left, Image right, Platform[] platforms) {
-        super(left, x, y, MONKEY_GRAVITY);
-        this.imageLeft  = left;
-        this.imageRight = right;
+
+    public Monkey(EntityStore store, double x, double y, String direction, int[] route, Sprite left,
+                  Sprite right, PlatformIndex platforms, double screenWidth) {
+        super(store, left, x, y, MONKEY_GRAVITY);
+        this.spriteLeft  = left;
+        this.spriteRight = right;
+        this.screenWidth = screenWidth;
         this.faceRight = direction.equals("right");
         this.directionSign = faceRight ? 1 : -1;
-        this.speed = MOVE_SPEED;
-        for (String part : routeStr.split(",")) {
-            this.route.add(Integer.parseInt(part));
+        // Each step adds exactly MOVE_SPEED, so a segment of d pixels ends after ceil(d / MOVE_SPEED) steps
+        this.segmentSteps = new int[route.length];
+        for (int i = 0; i < route.length; i++) {
+            segmentSteps[i] = (int) Math.ceil(route[i] / MOVE_SPEED);
         }
         this.platforms = platforms;
     }
 
+    /**
+     * Constructs a copy of a monkey, for a copy of a level. The route is shared, since it never changes.
+     *
+     * @param source the monkey to copy
+     * @param store  a copy of the store holding the source's state
+     */
+    protected Monkey(Monkey source, EntityStore store) {
+        super(source, store);
+        this.spriteLeft = source.spriteLeft;
+        this.spriteRight = source.spriteRight;
+        this.platforms = source.platforms;
+        this.screenWidth = source.screenWidth;
+        this.segmentSteps = source.segmentSteps;
+        this.faceRight = source.faceRight;
+        this.directionSign = source.directionSign;
+        this.stepsTravelled = source.stepsTravelled;
+        this.platformBottom = source.platformBottom;
+        this.onPlatform = source.onPlatform;
+        this.platformLeft = source.platformLeft;
+        this.platformRight = source.platformRight;
+    }
+
+    /**
+     * Returns a copy of this monkey, for a copy of its level.
+     *
+     * @param store a copy of the store holding this monkey's state
+     * @return the copy
+     */
+    public abstract Monkey copy(EntityStore store);
+
     /**
      * Advances the monkey one step along its patrol path, handling edge-of-window
      * flips and platform-edge flips.
      */
     @Override
     public void move() {
-        if (route.isEmpty()) return;
+        if (segmentSteps.length == 0) return;
 
         // when monkey reach the edge of the window, flip direction
-        if (getX() <= 0 || this.getBoundingBox().right() >= ShadowDonkeyKong.getScreenWidth()) {
-            flipDirection();
-            directionSign *= -1;
-            distanceTravel = 0;
-            setX(getX() + directionSign * speed);
+        if (getX() <= 0 || getRight() >= screenWidth) {
+            turnAround();
             return;
         }
 
         // Flip direction at the current platform edges.
-        Platform currentPlatform = getCurrentPlatform(platforms);
-        if (currentPlatform != null) {
-            double platformLeft = currentPlatform.getBoundingBox().left();
-            double platformRight = currentPlatform.getBoundingBox().right();
-
-            if ((this.getBoundingBox().right() >= platformRight) || (this.getBoundingBox().left() <= platformLeft)) {
-                flipDirection();
-                directionSign *= -1;
-                distanceTravel = 0;
-                setX(getX() + directionSign * speed);
-                return;
-            }
+        if (platformBottom != getBottom()) {
+            findCurrentPlatform();
+        }
+        if (onPlatform && (getRight() >= platformRight || getLeft() <= platformLeft)) {
+            turnAround();
+            return;
         }
 
-        // Move along the route and accumulate distance.
-        setX(getX() + directionSign * speed);
-        distanceTravel += speed;
+        // Move along the route and count the steps.
+        setX(getX() + directionSign * MOVE_SPEED);
+        stepsTravelled++;
 
         // When the current segment is complete, advance and flip.
-        if (distanceTravel >= route.get(routeIndex)) {
-            distanceTravel = 0;
+        EntityStore store = getStore();
+        int routeIndex = store.getRouteIndex(getSlot());
+        if (stepsTravelled >= segmentSteps[routeIndex]) {
+            stepsTravelled = 0;
             routeIndex++;
 
-            if (routeIndex >= route.size()) {
+            if (routeIndex >= segmentSteps.length) {
                 routeIndex = 0;
             }
+            store.setRouteIndex(getSlot(), routeIndex);
 
             flipDirection();
             directionSign *= -1;
@@ -88,12 +121,20 @@ public abstract class Monkey extends GravityEntity implements Movable {
         }
     }
 
+    /** Reverses direction at an edge, restarts the current segment and steps back from the edge. */
+    private void turnAround() {
+        flipDirection();
+        directionSign *= -1;
+        stepsTravelled = 0;
+        setX(getX() + directionSign * MOVE_SPEED);
+    }
+
 
     /**
      * @return {@code true} if this monkey is still alive; {@code false} if it has been eliminated.
      */
     public boolean isAlive() {
-        return isAlive;
+        return getStore().isLive(getSlot());
     }
 
     /**
@@ -111,52 +152,55 @@ public abstract class Monkey extends GravityEntity implements Movable {
     /**
      * Updates the monkey each frame by applying gravity and then moving.
      *
-     * @param platforms array of platforms for collision checks
+     * @param platforms index of platforms for collision checks
      */
     @Override
-    public void update(Platform[] platforms) {
+    public void update(PlatformIndex platforms) {
         super.update(platforms); // apply gravity
         move();
     }
 
-    /** Draws the monkey using the correct image based on its facing direction. */
+    /** Draws the monkey using the correct sprite based on its facing direction, while it is alive. */
     @Override
-    public void draw() {
+    public void draw(SpriteBatch batch) {
+        if (!isAlive()) {
+            return;
+        }
         if (faceRight) {
-            this.imageRight.draw(getX(), getY());
+            batch.draw(this.spriteRight, getX(), getY());
         } else {
-            this.imageLeft.draw(getX(), getY());
+            batch.draw(this.spriteLeft, getX(), getY());
         }
     }
 
     /**
-     * Checks whether this monkey's bounding box rests on top of any platform.
-     *
-     * @param platforms array of platforms to test against
-     * @return the current platform if standing, otherwise {@code null}
+     * Looks up the platform this monkey's bounding box rests on, if any, and keeps its edges.
      */
-    private Platform getCurrentPlatform(Platform[] platforms) {
-        for (Platform platform : platforms) {
-            if (this.getBoundingBox().bottom() == platform.getBoundingBox().top()) {
-                return platform;
-            }
+    private void findCurrentPlatform() {
+        platformBottom = getBottom();
+        int index = platforms.firstWithTop(platformBottom);
+        onPlatform = index >= 0;
+        if (onPlatform) {
+            platformLeft = platforms.get(index).getLeft();
+            platformRight = platforms.get(index).getRight();
         }
-        return null;
     }
 
-    /**
-     * Converts an integer array into a comma-separated path string.
-     *
-     * @param path array of distances
-     * @return a comma-delimited string of the path values
-     * */
-    public static String joinPath(int[] path) {
-        StringBuilder record = new StringBuilder();
-        for (int i = 0; i < path.length; i++) {
-            record.append(path[i]);
-            if (i < path.length - 1) record.append(",");
-        }
-        return record.toString();
+    @Override
+    public void writeState(DataOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeBoolean(faceRight);
+        out.writeInt(directionSign);
+        out.writeInt(stepsTravelled);
+    }
+
+    @Override
+    public void readState(DataInputStream in) throws IOException {
+        super.readState(in);
+        faceRight = in.readBoolean();
+        directionSign = in.readInt();
+        stepsTravelled = in.readInt();
+        platformBottom = Double.NaN;  // Look the platform up again on the next move
     }
 
     /**
@@ -169,13 +213,13 @@ public abstract class Monkey extends GravityEntity implements Movable {
      */
     @Override
     public void changeState(GameEntity other) {
-        if (other instanceof Bullet && isAlive) {
-            isAlive = false;
-            System.out.println("Monkey hit by bullet and disappeared.");
+        if (other instanceof Bullet && isAlive()) {
+            getStore().setLive(getSlot(), false);
+            GameLog.log(GameEvent.MONKEY_SHOT);
         }else{
-            if (other instanceof Mario && isAlive) {
-                isAlive = false;
-                System.out.println("Monkey hit by Mario and game over.");
+            if (other instanceof Mario && isAlive()) {
+                getStore().setLive(getSlot(), false);
+                GameLog.log(GameEvent.MONKEY_HIT_MARIO);
             }
         }
     }
@@ -1,5 +1,3 @@
-import bagel.Image;
-
 /**
  * Represents a standard monkey enemy that patrols along a predefined route.
  *
@@ -8,13 +6,30 @@ import bagel.Image;
  *
  */
 public class NormalMonkey extends Monkey {
+    private static final Sprite LEFT_SPRITE = SpriteCache.acquire("res/normal_monkey_left.png");
+    private static final Sprite RIGHT_SPRITE = SpriteCache.acquire("res/normal_monkey_right.png");
+
+    public NormalMonkey(double x, double y, String direction, int[] patrolPath, PlatformIndex platforms,
+                        double screenWidth) {
+        this(new EntityStore(1), x, y, direction, patrolPath, platforms, screenWidth);
+    }
 
-    public NormalMonkey(double x, double y, String direction, int[] patrolPath, Platform[] platforms) {
-        super(x, y, direction, joinPath(patrolPath),
-                new Image("res/normal_monkey_left.png"),
-                new Image("res/normal_monkey_right.png"),
-                platforms
+    public NormalMonkey(EntityStore store, double x, double y, String direction, int[] patrolPath,
+                        PlatformIndex platforms, double screenWidth) {
+        super(store, x, y, direction, patrolPath,
+                LEFT_SPRITE,
+                RIGHT_SPRITE,
+                platforms, screenWidth
         );
     }
 
+    private NormalMonkey(NormalMonkey source, EntityStore store) {
+        super(source, store);
+    }
+
+    @Override
+    public Monkey copy(EntityStore store) {
+        return new NormalMonkey(this, store);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the per-entity work of one update phase, either on the calling thread or split across
+ * a pool of worker threads.
+ *
+ * Work is handed out as ranges of indices cut at multiples of {@link #CHUNK_SIZE}. When the
+ * indices are {@link EntityStore} slots, no two threads then share a word of the store's
+ * bitsets. A range may only change the entities in it; anything that affects other entities,
+ * such as launching a banana or adding score, is left for the caller to apply in entity order
+ * once the phase returns, so a tick ends exactly as it would on one thread.
+ *
+ * Phases too small to be worth splitting always run on the calling thread.
+ */
+public class PhaseExecutor {
+    /**
+     * The granularity ranges are split at; one word of an {@link EntityStore} bitset.
+     */
+    public static final int CHUNK_SIZE = 64;
+
+    /**
+     * Runs every phase on the calling thread.
+     */
+    public static final PhaseExecutor SERIAL = new PhaseExecutor(null);
+
+    private static final int MIN_PARALLEL_SIZE = 4 * CHUNK_SIZE;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs an executor with its own pool of worker threads.
+     *
+     * @param threads the number of worker threads
+     */
+    public PhaseExecutor(int threads) {
+        this(new ForkJoinPool(threads));
+    }
+
+    private PhaseExecutor(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Creates the executor named by a thread count setting.
+     *
+     * @param threads the number of worker threads, or {@code null} to run on the calling thread
+     * @return {@link #SERIAL} for a missing setting or a single thread; otherwise a new executor
+     */
+    public static PhaseExecutor create(String threads) {
+        if (threads == null || Integer.parseInt(threads.trim()) <= 1) {
+            return SERIAL;
+        }
+        return new PhaseExecutor(Integer.parseInt(threads.trim()));
+    }
+
+    /**
+     * Runs an action over a range of indices and waits for it to finish.
+     *
+     * @param from   the first index
+     * @param to     the index after the last one
+     * @param action the work to do for a part of the range
+     */
+    public void forEach(int from, int to, RangeAction action) {
+        if (pool == null || to - from < MIN_PARALLEL_SIZE) {
+            if (from < to) {
+                action.run(from, to);
+            }
+            return;
+        }
+        pool.invoke(new Range(action, from, to));
+    }
+
+    /**
+     * Stops the worker threads. Phases run afterwards must use another executor.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The work done for one part of a phase.
+     */
+    public interface RangeAction {
+        /**
+         * Processes the indices of a range.
+         *
+         * @param from the first index
+         * @param to   the index after the last one
+         */
+        void run(int from, int to);
+    }
+
+    /**
+     * Recursively splits a range at chunk boundaries until it lies within one chunk.
+     */
+    private static class Range extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeAction action;
+        private final int from;
+        private final int to;
+
+        Range(RangeAction action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int firstBoundary = (from / CHUNK_SIZE + 1) * CHUNK_SIZE;
+            if (firstBoundary >= to) {
+                action.run(from, to);
+                return;
+            }
+            int mid = Math.max(firstBoundary, ((from + to) >>> 1) / CHUNK_SIZE * CHUNK_SIZE);
+            invokeAll(new Range(action, from, mid), new Range(action, mid, to));
+        }
+    }
+}
@@ -0,0 +1,363 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Searches each level for a sequence of inputs that wins it, without a window, to check
+ * that a layout can still be beaten before the timer runs out.
+ *
+ * The search is a beam search over {@link LevelSimulation#fork() forks} of the level. At each
+ * step every kept state tries a handful of short moves, such as holding a direction for a few
+ * ticks or jumping, and only the most promising results are kept for the next step: those
+ * closest to the hammer and then to Donkey Kong, with the most damage done and points scored.
+ * Results that leave Mario in the same spot are merged first, so the beam spreads over the
+ * level instead of crowding onto one ledge.
+ *
+ * The moves of a step are played out across a work-stealing {@link ForkJoinPool}. Each fork
+ * is stepped by a single thread and the results are ranked in a fixed order afterwards, so
+ * the plan found does not depend on the number of threads.
+ *
+ * Usage: {@code PlanRunner [beam width] [threads] [replay directory]}
+ */
+public class PlanRunner {
+    private static final int DEFAULT_BEAM_WIDTH = 64;
+    private static final int MOVE_TICKS = 6;  // Ticks each move holds its keys for
+
+    // Keys held for a whole move, and keys pressed on its first tick only
+    private static final int[][] MOVES = {
+            {0, 0},
+            {FrameInput.LEFT, 0},
+            {FrameInput.RIGHT, 0},
+            {FrameInput.UP, 0},
+            {FrameInput.DOWN, 0},
+            {0, FrameInput.JUMP},
+            {FrameInput.LEFT, FrameInput.JUMP},
+            {FrameInput.RIGHT, FrameInput.JUMP},
+            {FrameInput.LEFT, FrameInput.SHOOT},
+            {FrameInput.RIGHT, FrameInput.SHOOT}
+    };
+
+    // Weights of the ranking, against distances in pixels
+    private static final double DAMAGE_WEIGHT = 400;
+    private static final double SCORE_WEIGHT = 0.1;
+    private static final double MERGE_CELL_SIZE = 4;
+
+    private final Properties gameProps;
+    private final LevelDefinition[] LEVELS;
+    private final int beamWidth;
+    private final int parallelism;
+
+    // Guides for the level being searched
+    private DistanceField toHammer;
+    private DistanceField toDonkey;
+    private double hammerToDonkey;
+
+    /**
+     * Constructs a planner for both levels.
+     *
+     * @param gameProps   Properties file containing game settings.
+     * @param beamWidth   the number of states kept at each step of the search
+     * @param parallelism the number of worker threads
+     */
+    public PlanRunner(Properties gameProps, int beamWidth, int parallelism) {
+        this.gameProps = gameProps;
+        this.LEVELS = new LevelDefinition[] {
+                LevelDefinition.compile(gameProps, 1),
+                LevelDefinition.compile(gameProps, 2)
+        };
+        this.beamWidth = beamWidth;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Searches for the quickest win of a level, starting with no score.
+     * Among wins found on the same step, the highest score is preferred.
+     * A planner searches one level at a time.
+     *
+     * @param level the level number, 1 or 2
+     * @return the outcome of the search
+     */
+    public PlanResult plan(int level) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            return search(level, pool, start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private PlanResult search(int level, ForkJoinPool pool, long start) {
+        LevelSimulation root = LevelSimulation.create(LEVELS[level - 1], 0);
+        buildGuides(root);
+        ArrayList<Node> beam = new ArrayList<>();
+        beam.add(new Node(root, null, 0));
+        Node best = beam.get(0);
+        long states = 0;
+
+        while (!beam.isEmpty()) {
+            // Fork on this thread: forking marks the parent's arrays as shared, so it must not race
+            ArrayList<Node> children = new ArrayList<>(beam.size() * MOVES.length);
+            for (Node parent : beam) {
+                boolean canShoot = parent.level.getMario().getBulletsCount() > 0;
+                for (int move = 0; move < MOVES.length; move++) {
+                    if ((MOVES[move][1] & FrameInput.SHOOT) != 0 && !canShoot) {
+                        continue;
+                    }
+                    children.add(new Node(parent.level.fork(), parent, move));
+                }
+            }
+            pool.invoke(new MoveRange(children, 0, children.size()));
+            states += children.size();
+
+            Node won = null;
+            for (Node child : children) {
+                if (child.level.getScore() > best.level.getScore()) {
+                    best = child;
+                }
+                if (child.level.isPlayerWon() && (won == null || isBetterWin(child, won))) {
+                    won = child;
+                }
+            }
+            if (won != null) {
+                return new PlanResult(won.level, toReplay(level, won), states, System.nanoTime() - start);
+            }
+            beam = select(children);
+        }
+        return new PlanResult(best.level, toReplay(level, best), states, System.nanoTime() - start);
+    }
+
+    /**
+     * Builds the distance fields to the hammer and to Donkey Kong, once the ladders and
+     * Donkey Kong have come to rest on the platforms.
+     */
+    private void buildGuides(LevelSimulation root) {
+        LevelSimulation settled = root.fork();
+        for (int tick = 0; tick < LevelSimulation.TICKS_PER_SECOND; tick++) {
+            settled.step(FrameInput.NONE);
+        }
+        Hammer hammer = settled.getHammer();
+        toHammer = new DistanceField(settled, hammer);
+        toDonkey = new DistanceField(settled, settled.getDonkey());
+        hammerToDonkey = toDonkey.distanceFrom(hammer.getX(), hammer.getBottom());
+    }
+
+    /**
+     * Records the moves leading to a state as a replay, up to the last tick played.
+     */
+    private Replay toReplay(int level, Node end) {
+        ArrayList<Integer> moves = new ArrayList<>();
+        for (Node node = end; node.parent != null; node = node.parent) {
+            moves.add(node.move);
+        }
+        ReplayRecorder recorder = new ReplayRecorder(gameProps, level, 0);
+        int frames = end.level.getCurrFrame();
+        int recorded = 0;
+        for (int i = moves.size() - 1; i >= 0; i--) {
+            int[] keys = MOVES[moves.get(i)];
+            for (int tick = 0; tick < MOVE_TICKS && recorded < frames; tick++, recorded++) {
+                recorder.record(FrameInput.of(tick == 0 ? keys[0] | keys[1] : keys[0]));
+            }
+        }
+        return recorder.finish(end.level);
+    }
+
+    private static boolean isBetterWin(Node candidate, Node won) {
+        int frames = candidate.level.getCurrFrame();
+        int wonFrames = won.level.getCurrFrame();
+        return frames < wonFrames || (frames == wonFrames && candidate.level.getScore() > won.level.getScore());
+    }
+
+    /**
+     * Picks the states to carry on from: of the states still playing, the best one for each
+     * spot Mario can be in, then the best of those up to the beam width.
+     * Ties are broken by the order of the children, so the choice is deterministic.
+     */
+    private ArrayList<Node> select(ArrayList<Node> children) {
+        ArrayList<Node> merged = new ArrayList<>(children.size());
+        HashMap<Long, Integer> spots = new HashMap<>();
+        for (Node child : children) {
+            if (child.level.isGameOver()) {
+                continue;
+            }
+            Integer index = spots.get(child.spot);
+            if (index == null) {
+                spots.put(child.spot, merged.size());
+                merged.add(child);
+            } else if (child.value > merged.get(index).value) {
+                merged.set(index, child);
+            }
+        }
+        merged.sort((a, b) -> Double.compare(b.value, a.value));  // Stable, so ties keep their order
+        if (merged.size() > beamWidth) {
+            return new ArrayList<>(merged.subList(0, beamWidth));
+        }
+        return merged;
+    }
+
+    /**
+     * Rates how close a state is to winning: the shorter the way left to the hammer and on to
+     * Donkey Kong, and the more damage done and points scored, the better.
+     */
+    private double evaluate(LevelSimulation level) {
+        Mario mario = level.getMario();
+        double value = level.getScore() * SCORE_WEIGHT - level.getDonkey().getHealth() * DAMAGE_WEIGHT;
+        if (!mario.holdHammer() && !level.getHammer().isCollected()) {
+            return value - toHammer.distanceFrom(mario) - hammerToDonkey;
+        }
+        return value - toDonkey.distanceFrom(mario);
+    }
+
+    /**
+     * Identifies where Mario is and what he carries, so that states differing only in
+     * details the ranking cannot see are merged.
+     */
+    private static long spotOf(LevelSimulation level) {
+        Mario mario = level.getMario();
+        long column = (long) Math.floor(mario.getX() / MERGE_CELL_SIZE);
+        long row = (long) Math.floor(mario.getY() / MERGE_CELL_SIZE);
+        long carried = (mario.holdHammer() ? 1 : 0) | (long) mario.getBulletsCount() << 1;
+        return (column << 40) ^ (row << 20) ^ carried;
+    }
+
+    /**
+     * One state of the search: a fork of the level, and the move that led to it from its parent.
+     */
+    private class Node {
+        private final LevelSimulation level;
+        private final Node parent;
+        private final int move;
+        private double value;
+        private long spot;
+
+        Node(LevelSimulation level, Node parent, int move) {
+            this.level = level;
+            this.parent = parent;
+            this.move = move;
+        }
+
+        /**
+         * Plays this node's move on its fork, stopping early if the level ends, and rates the result.
+         */
+        void play() {
+            int[] keys = MOVES[move];
+            boolean isFinished = level.step(FrameInput.of(keys[0] | keys[1]));
+            for (int tick = 1; tick < MOVE_TICKS && !isFinished; tick++) {
+                isFinished = level.step(FrameInput.of(keys[0]));
+            }
+            value = evaluate(level);
+            spot = spotOf(level);
+        }
+    }
+
+    /**
+     * Recursively splits a range of nodes until each task plays a single move.
+     */
+    private static class MoveRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ArrayList<Node> nodes;
+        private final int from;
+        private final int to;
+
+        MoveRange(ArrayList<Node> nodes, int from, int to) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                nodes.get(from).play();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MoveRange(nodes, from, mid), new MoveRange(nodes, mid, to));
+        }
+    }
+
+    /**
+     * The outcome of searching one level.
+     */
+    public static class PlanResult {
+        private final int level;
+        private final boolean isWon;
+        private final int frames;
+        private final int score;
+        private final int secondsLeft;
+        private final Replay replay;
+        private final long states;
+        private final long elapsedNanos;
+
+        PlanResult(LevelSimulation end, Replay replay, long states, long elapsedNanos) {
+            this.level = end.getLevel();
+            this.isWon = end.isPlayerWon();
+            this.frames = end.getCurrFrame();
+            this.score = end.getScore();
+            this.secondsLeft = end.getSecondsLeft();
+            this.replay = replay;
+            this.states = states;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** @return the level searched */
+        public int getLevel() { return level; }
+
+        /** @return {@code true} if a winning plan was found */
+        public boolean isWon() { return isWon; }
+
+        /** @return the number of ticks the plan takes; for a level not won, the ticks to its best score */
+        public int getFrames() { return frames; }
+
+        /** @return the score at the end of the plan */
+        public int getScore() { return score; }
+
+        /** @return the seconds left on the timer at the end of the plan */
+        public int getSecondsLeft() { return secondsLeft; }
+
+        /** @return the inputs of the plan, which {@link ReplayRunner} can check */
+        public Replay getReplay() { return replay; }
+
+        /** @return the number of states played out during the search */
+        public long getStates() { return states; }
+
+        /** @return the wall-clock time the search took, in nanoseconds */
+        public long getElapsedNanos() { return elapsedNanos; }
+    }
+
+    /**
+     * Searches both levels and reports the best plan for each. Exits with status 1 if either
+     * level could not be won, so a layout that can no longer be beaten fails the build.
+     *
+     * @param args optional beam width, thread count and a directory to write the plans to as replays
+     */
+    public static void main(String[] args) {
+        int beamWidth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_BEAM_WIDTH;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String replayDir = args.length > 2 ? args[2] : null;
+
+        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+        PlanRunner planner = new PlanRunner(gameProps, beamWidth, threads);
+        if (replayDir != null) {
+            new File(replayDir).mkdirs();
+        }
+        boolean isAllWon = true;
+        for (int level = 1; level <= 2; level++) {
+            PlanResult result = planner.plan(level);
+            isAllWon &= result.isWon();
+            System.out.printf("%s level %d: %d ticks, score %d, %d s left; %d states in %.2f s%n",
+                    result.isWon() ? "WON" : "NOT WON", level, result.getFrames(), result.getScore(),
+                    result.getSecondsLeft(), result.getStates(), result.getElapsedNanos() / 1e9);
+            if (replayDir != null) {
+                IOUtils.writeReplay(new File(replayDir, "plan-level" + level + ".replay").getPath(), result.getReplay());
+            }
+        }
+        if (!isAllWon) {
+            System.exit(1);
+        }
+    }
+}
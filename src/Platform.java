@@ -1,11 +1,9 @@
-import bagel.*;
-
 /**
  * Represents a stationary platform in the game.
  * Platforms provide surfaces for Mario to walk on and interact with.
  */
 public class Platform extends GameEntity{
-    private static final Image PLATFORM_IMAGE = new Image("res/platform.png");
+    private static final Sprite PLATFORM_SPRITE = SpriteCache.acquire("res/platform.png");
 
     /**
      * Constructs a platform at the specified position.
@@ -15,7 +13,7 @@ public class Platform extends GameEntity{
      */
     public Platform(double x, double y) {
         // Load platform sprite
-        super(PLATFORM_IMAGE, x, y);
+        super(PLATFORM_SPRITE, x, y);
     }
 }
 
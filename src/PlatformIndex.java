@@ -0,0 +1,226 @@
+import java.util.Arrays;
+
+/**
+ * A lookup structure over a level's platforms, built once when the level starts.
+ *
+ * Platforms never move, so they are grouped into rows by their top edge, and each row is
+ * sorted by left edge. Finding the platforms under an area is then a binary search for the
+ * rows spanning its height and, within each row, for the platforms spanning its width,
+ * instead of a test against every platform of the level.
+ *
+ * Answers are given as indices into the level's platform array and always match what a
+ * plain loop over the array would find first, so swapping a loop for the index never
+ * changes which platform an entity lands on.
+ */
+public class PlatformIndex {
+    // Slack added to the search windows, so rounding in the edges can never hide a platform
+    private static final double SEARCH_MARGIN = 1;
+
+    private final Platform[] platforms;
+    private final double maxWidth;
+    private final double maxHeight;
+
+    // Distinct top edges in ascending order; row i holds entries rowStarts[i] to rowStarts[i + 1]
+    private final double[] rowTops;
+    private final int[] rowStarts;
+    private final int[] rowFirstIndex;
+
+    // Platforms ordered by row, then by left edge
+    private final int[] entryIndex;
+    private final double[] entryLeft;
+    private final double[] entryTop;
+    private final double[] entryRight;
+    private final double[] entryBottom;
+
+    /**
+     * Indexes the given platforms.
+     *
+     * @param platforms the level's platforms; they must not move afterwards
+     */
+    public PlatformIndex(Platform[] platforms) {
+        this.platforms = platforms;
+        int count = platforms.length;
+
+        Integer[] order = new Integer[count];
+        double widest = 0;
+        double tallest = 0;
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+            widest = Math.max(widest, platforms[i].getRight() - platforms[i].getLeft());
+            tallest = Math.max(tallest, platforms[i].getBottom() - platforms[i].getTop());
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byTop = Double.compare(platforms[a].getTop(), platforms[b].getTop());
+            return byTop != 0 ? byTop : Double.compare(platforms[a].getLeft(), platforms[b].getLeft());
+        });
+        this.maxWidth = widest + SEARCH_MARGIN;
+        this.maxHeight = tallest + SEARCH_MARGIN;
+
+        entryIndex = new int[count];
+        entryLeft = new double[count];
+        entryTop = new double[count];
+        entryRight = new double[count];
+        entryBottom = new double[count];
+        double[] tops = new double[count];
+        int[] starts = new int[count + 1];
+        int[] firstIndex = new int[count];
+        int rows = 0;
+        for (int i = 0; i < count; i++) {
+            Platform platform = platforms[order[i]];
+            entryIndex[i] = order[i];
+            entryLeft[i] = platform.getLeft();
+            entryTop[i] = platform.getTop();
+            entryRight[i] = platform.getRight();
+            entryBottom[i] = platform.getBottom();
+            if (rows == 0 || tops[rows - 1] != entryTop[i]) {
+                tops[rows] = entryTop[i];
+                starts[rows] = i;
+                firstIndex[rows] = order[i];
+                rows++;
+            }
+            firstIndex[rows - 1] = Math.min(firstIndex[rows - 1], order[i]);
+        }
+        starts[rows] = count;
+        this.rowTops = Arrays.copyOf(tops, rows);
+        this.rowStarts = Arrays.copyOf(starts, rows + 1);
+        this.rowFirstIndex = Arrays.copyOf(firstIndex, rows);
+    }
+
+    /**
+     * Returns the indexed platforms. Callers must not modify the array.
+     * @return the platforms, in the level's order
+     */
+    public Platform[] getPlatforms() {
+        return platforms;
+    }
+
+    /**
+     * Returns a platform by its position in the level's platform array.
+     *
+     * @param index the index of the platform
+     * @return the platform
+     */
+    public Platform get(int index) {
+        return platforms[index];
+    }
+
+    /**
+     * Finds the first platform, in the level's order, intersecting the given area.
+     * Edges that touch count as an intersection.
+     *
+     * @param left   the left edge of the area
+     * @param top    the top edge of the area
+     * @param right  the right edge of the area
+     * @param bottom the bottom edge of the area
+     * @return the index of the platform, or -1 if none intersects the area
+     */
+    public int firstIntersecting(double left, double top, double right, double bottom) {
+        return nextIntersecting(left, top, right, bottom, -1);
+    }
+
+    /**
+     * Finds the first platform after the given one, in the level's order, intersecting the given area.
+     * Edges that touch count as an intersection.
+     *
+     * @param left   the left edge of the area
+     * @param top    the top edge of the area
+     * @param right  the right edge of the area
+     * @param bottom the bottom edge of the area
+     * @param after  the index to search after, or -1 to search from the start
+     * @return the index of the platform, or -1 if no later platform intersects the area
+     */
+    public int nextIntersecting(double left, double top, double right, double bottom, int after) {
+        int found = -1;
+        // Only rows starting at most one platform height above the area can reach into it
+        for (int row = firstRowAtOrBelow(top - maxHeight); row < rowTops.length && rowTops[row] <= bottom; row++) {
+            int rowStart = rowStarts[row];
+            // Walk left from the last platform starting before the area's right edge,
+            // until platforms start too far left to reach the area
+            for (int i = lastStartingBefore(rowStart, rowStarts[row + 1], right);
+                 i >= rowStart && entryLeft[i] >= left - maxWidth; i--) {
+                int index = entryIndex[i];
+                if (index > after && (found < 0 || index < found)
+                        && !(entryRight[i] < left || entryLeft[i] > right
+                        || entryBottom[i] < top || entryTop[i] > bottom)) {
+                    found = index;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the first platform, in the level's order, whose top edge is exactly at the given height.
+     *
+     * @param top the height of the top edge
+     * @return the index of the platform, or -1 if no platform's top is at that height
+     */
+    public int firstWithTop(double top) {
+        int row = firstRowAtOrBelow(top);
+        return row < rowTops.length && rowTops[row] == top ? rowFirstIndex[row] : -1;
+    }
+
+    /**
+     * Finds the highest platform whose top edge lies within a range of heights and which
+     * spans part of a range of x-coordinates: the first one something falling straight down
+     * through the range would land on. Among platforms with the same top, the first in the
+     * level's order is returned.
+     *
+     * @param left   the left edge of the falling thing
+     * @param right  the right edge of the falling thing
+     * @param fromY  the top of the range of heights
+     * @param toY    the bottom of the range of heights
+     * @return the index of the platform, or -1 if there is none
+     */
+    public int firstTopBetween(double left, double right, double fromY, double toY) {
+        for (int row = firstRowAtOrBelow(fromY); row < rowTops.length && rowTops[row] <= toY; row++) {
+            int rowStart = rowStarts[row];
+            int found = -1;
+            for (int i = lastStartingBefore(rowStart, rowStarts[row + 1], right);
+                 i >= rowStart && entryLeft[i] >= left - maxWidth; i--) {
+                int index = entryIndex[i];
+                if ((found < 0 || index < found) && entryRight[i] >= left) {
+                    found = index;
+                }
+            }
+            if (found >= 0) {
+                return found;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the first row whose top edge is at or below the given height
+     */
+    private int firstRowAtOrBelow(double y) {
+        int low = 0;
+        int high = rowTops.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (rowTops[mid] < y) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the last entry in the range whose left edge is at most x, or {@code from - 1} if there is none
+     */
+    private int lastStartingBefore(int from, int to, double x) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entryLeft[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+}
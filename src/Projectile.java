@@ -0,0 +1,178 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A super class for projectiles that fly in a straight horizontal line.
+ *
+ * Projectiles are owned by a {@link ProjectilePool} and reused: instead of creating a new
+ * projectile for every shot, a spent one is launched again from a new position.
+ *
+ */
+public abstract class Projectile extends GameEntity implements Movable {
+    private double distanceTraveled = 0;
+    private boolean isFacingRight = true;
+    private int poolIndex = -1;  // Position in the pool that created this projectile
+
+    public Projectile(EntityStore store, Sprite sprite) {
+        super(store, sprite, 0, 0);
+        store.setLive(getSlot(), false);
+    }
+
+    /**
+     * Constructs a copy of a projectile, for a copy of its pool.
+     *
+     * @param source the projectile to copy
+     * @param store  a copy of the store holding the source's state
+     */
+    protected Projectile(Projectile source, EntityStore store) {
+        super(source, store);
+        this.distanceTraveled = source.distanceTraveled;
+        this.isFacingRight = source.isFacingRight;
+        this.poolIndex = source.poolIndex;
+    }
+
+    /**
+     * Returns the position of this projectile among all the projectiles of its pool.
+     * @return the index, or -1 if the projectile does not belong to a pool
+     */
+    int getPoolIndex() {
+        return poolIndex;
+    }
+
+    /**
+     * Records the position of this projectile among all the projectiles of its pool.
+     * @param poolIndex the index
+     */
+    void setPoolIndex(int poolIndex) {
+        this.poolIndex = poolIndex;
+    }
+
+    /**
+     * Puts the projectile back into flight from the given position,
+     * clearing everything left over from its previous flight.
+     *
+     * @param x             the x-coordinate to launch from
+     * @param y             the y-coordinate to launch from
+     * @param isFacingRight {@code true} to travel right, {@code false} to travel left
+     */
+    public void launch(double x, double y, boolean isFacingRight) {
+        setX(x);
+        setY(y);
+        this.isFacingRight = isFacingRight;
+        this.distanceTraveled = 0;
+        getStore().setLive(getSlot(), true);
+    }
+
+    /**
+     * Moves the projectile horizontally by the given speed in its facing direction
+     * and adds the distance to the distance traveled.
+     *
+     * @param speed the distance to move, in pixels
+     */
+    protected void advance(double speed) {
+        double dx = isFacingRight ? speed : -speed;
+        setX(getX() + dx);
+        distanceTraveled += Math.abs(dx);
+    }
+
+    /**
+     * Returns how far the projectile moves each tick.
+     * @return the speed, in pixels per tick
+     */
+    protected abstract double getSpeed();
+
+    /**
+     * Returns the left edge of the area the projectile swept through on its last move.
+     * Flying left, this is just its left edge; flying right, its box is stretched back over
+     * the gap between where it was and where it is.
+     *
+     * @return the left edge of the swept area
+     */
+    @Override
+    public double getSweptLeft() {
+        return isFacingRight ? Math.min(getLeft(), getRight() - lastStep()) : getLeft();
+    }
+
+    /**
+     * Returns the right edge of the area the projectile swept through on its last move.
+     * Flying right, this is just its right edge; flying left, its box is stretched back over
+     * the gap between where it was and where it is.
+     *
+     * @return the right edge of the swept area
+     */
+    @Override
+    public double getSweptRight() {
+        return isFacingRight ? getRight() : Math.max(getRight(), getLeft() + lastStep());
+    }
+
+    /**
+     * @return the length of the last move, or 0 before the first one
+     */
+    private double lastStep() {
+        return Math.min(getSpeed(), distanceTraveled);
+    }
+
+    /**
+     * Tests whether the area the projectile swept through on its last move intersects the
+     * given area, so a projectile moving further in a tick than its own width, or than
+     * whatever it hits, cannot pass through it between two ticks.
+     * Edges that touch count as an intersection.
+     *
+     * @param left   the left edge of the area
+     * @param top    the top edge of the area
+     * @param right  the right edge of the area
+     * @param bottom the bottom edge of the area
+     * @return {@code true} if the swept area intersects the area; {@code false} otherwise
+     */
+    @Override
+    public boolean intersects(double left, double top, double right, double bottom) {
+        return !(right < getSweptLeft() || left > getSweptRight()
+                || bottom < getTop() || top > getBottom());
+    }
+
+    /**
+     * Takes the projectile out of flight, e.g. when it hits something or runs out of range.
+     */
+    protected void land() {
+        getStore().setLive(getSlot(), false);
+    }
+
+    /**
+     * Returns how far the projectile has travelled since it was launched.
+     * @return the distance traveled, in pixels
+     */
+    protected double getDistanceTraveled() {
+        return distanceTraveled;
+    }
+
+    /**
+     * Returns whether the projectile is still flying.
+     * @return {@code true} if the projectile is in flight; {@code false} once it has landed
+     */
+    protected boolean isInFlight() {
+        return getStore().isLive(getSlot());
+    }
+
+    /**
+     * Returns the direction the projectile travels in.
+     * @return {@code true} if it travels right, {@code false} if it travels left
+     */
+    protected boolean isFacingRight() {
+        return isFacingRight;
+    }
+
+    @Override
+    public void writeState(DataOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeDouble(distanceTraveled);
+        out.writeBoolean(isFacingRight);
+    }
+
+    @Override
+    public void readState(DataInputStream in) throws IOException {
+        super.readState(in);
+        distanceTraveled = in.readDouble();
+        isFacingRight = in.readBoolean();
+    }
+}
@@ -0,0 +1,168 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A fixed set of reusable projectiles.
+ *
+ * All projectiles are created up front. Launching takes one from the free list and releasing
+ * puts it back, so a level firing projectiles for its whole length does not allocate.
+ * Projectiles in flight are kept in a dense list; releasing one moves the last projectile
+ * into its slot, so the order of the list is not the launch order.
+ *
+ * @param <T> the type of projectile in the pool
+ */
+public class ProjectilePool<T extends Projectile> {
+    private final ArrayList<T> all;
+    private final ArrayList<T> active;
+    private final ArrayList<T> free;
+
+    /**
+     * Constructs a pool and creates all of its projectiles.
+     *
+     * @param capacity the most projectiles that can be in flight at once
+     * @param factory  creates one projectile
+     */
+    public ProjectilePool(int capacity, Supplier<T> factory) {
+        this.all = new ArrayList<>(capacity);
+        this.active = new ArrayList<>(capacity);
+        this.free = new ArrayList<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            T projectile = factory.get();
+            projectile.setPoolIndex(i);
+            all.add(projectile);
+        }
+        free.addAll(all);
+    }
+
+    /**
+     * Constructs a copy of a pool, for a copy of a level. The in-flight and free lists keep their order.
+     *
+     * @param source the pool to copy
+     * @param copier copies one projectile
+     */
+    public ProjectilePool(ProjectilePool<T> source, UnaryOperator<T> copier) {
+        int capacity = source.all.size();
+        this.all = new ArrayList<>(capacity);
+        for (T projectile : source.all) {
+            all.add(copier.apply(projectile));
+        }
+        this.active = new ArrayList<>(capacity);
+        this.free = new ArrayList<>(capacity);
+        for (T projectile : source.active) {
+            active.add(all.get(projectile.getPoolIndex()));
+        }
+        for (T projectile : source.free) {
+            free.add(all.get(projectile.getPoolIndex()));
+        }
+    }
+
+    /**
+     * Launches a free projectile from the given position.
+     *
+     * @param x             the x-coordinate to launch from
+     * @param y             the y-coordinate to launch from
+     * @param isFacingRight {@code true} to travel right, {@code false} to travel left
+     * @return the launched projectile, or {@code null} if every projectile is already in flight
+     */
+    public T launch(double x, double y, boolean isFacingRight) {
+        if (free.isEmpty()) {
+            return null;
+        }
+        T projectile = free.remove(free.size() - 1);
+        projectile.launch(x, y, isFacingRight);
+        active.add(projectile);
+        return projectile;
+    }
+
+    /**
+     * Returns the projectile in flight at the given index.
+     *
+     * @param index the index into the projectiles in flight
+     * @return the projectile
+     */
+    public T get(int index) {
+        return active.get(index);
+    }
+
+    /**
+     * Returns the number of projectiles in flight.
+     * @return the number of projectiles in flight
+     */
+    public int size() {
+        return active.size();
+    }
+
+    /**
+     * Returns the projectiles in flight. Callers must not modify the list.
+     * @return the projectiles in flight
+     */
+    public ArrayList<T> getActive() {
+        return active;
+    }
+
+    /**
+     * Returns the projectile at the given index to the pool.
+     * The last projectile in flight takes its place, so when walking the projectiles
+     * while releasing them, walk from the end.
+     *
+     * @param index the index into the projectiles in flight
+     */
+    public void release(int index) {
+        int last = active.size() - 1;
+        T projectile = active.get(index);
+        active.set(index, active.get(last));
+        active.remove(last);
+        free.add(projectile);
+    }
+
+    /**
+     * Writes the state of every projectile and the order of the in-flight and free lists.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(all.size());
+        for (T projectile : all) {
+            projectile.writeState(out);
+        }
+        writeOrder(active, out);
+        writeOrder(free, out);
+    }
+
+    /**
+     * Restores the pool from a snapshot written by {@link #writeState(DataOutputStream)}.
+     *
+     * @param in the stream to read from
+     * @throws IOException if the stream cannot be read or was written by a pool of another size
+     */
+    public void readState(DataInputStream in) throws IOException {
+        if (in.readInt() != all.size()) {
+            throw new IOException("Snapshot is for a pool of another size");
+        }
+        for (T projectile : all) {
+            projectile.readState(in);
+        }
+        readOrder(active, in);
+        readOrder(free, in);
+    }
+
+    private void writeOrder(ArrayList<T> list, DataOutputStream out) throws IOException {
+        out.writeInt(list.size());
+        for (T projectile : list) {
+            out.writeInt(projectile.getPoolIndex());
+        }
+    }
+
+    private void readOrder(ArrayList<T> list, DataInputStream in) throws IOException {
+        list.clear();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            list.add(all.get(in.readInt()));
+        }
+    }
+}
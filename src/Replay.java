@@ -0,0 +1,188 @@
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A recorded run of one level: the input of every tick, and the score and time left
+ * the level ended with.
+ *
+ * The simulation has no randomness of its own, so feeding the same inputs to a fresh level
+ * with the same game properties reproduces the run exactly. The header records a hash of
+ * those properties so a run is never checked against a different configuration.
+ *
+ * Players hold the same keys for many ticks at a time, so the inputs are stored run-length
+ * encoded. Each run starts with one byte: the low six bits are the {@link FrameInput} bits,
+ * and the top two give the run length, 1 to 3, or 3 to say that the length minus 4 follows
+ * as a variable-length integer (seven bits per byte, low bits first). Runs are decoded lazily
+ * during playback, so a replay read with {@link #map(Path)} is played straight out of the
+ * memory-mapped file without copying it onto the heap.
+ */
+public class Replay {
+    private static final int MAGIC = 0x444B5250; // "DKRP"
+    private static final int VERSION = 4;  // 4: a bullet hitting a platform no longer freezes another
+    private static final int HEADER_BYTES = 31;
+
+    static final int KEY_MASK = (1 << FrameInput.KEY_COUNT) - 1;
+    static final int LENGTH_SHIFT = FrameInput.KEY_COUNT;
+    static final int MAX_SHORT_RUN = 3;  // Longer runs spill their length into a varint
+
+    private final int level;
+    private final int configHash;
+    private final int startingScore;
+    private final int frameCount;
+    private final int finalScore;
+    private final int finalSecondsLeft;
+    private final ByteBuffer runs;
+
+    /**
+     * Constructs a replay.
+     *
+     * @param level            the level that was played
+     * @param configHash       the {@link LevelDefinition#configHash hash} of the game properties it was played with
+     * @param startingScore    the score carried into the level
+     * @param frameCount       the number of ticks recorded
+     * @param runs             the run-length encoded inputs, from position 0 to the limit
+     * @param finalScore       the score when the level ended
+     * @param finalSecondsLeft the seconds left when the level ended
+     */
+    public Replay(int level, int configHash, int startingScore, int frameCount, ByteBuffer runs,
+                  int finalScore, int finalSecondsLeft) {
+        this.level = level;
+        this.configHash = configHash;
+        this.startingScore = startingScore;
+        this.frameCount = frameCount;
+        this.runs = runs;
+        this.finalScore = finalScore;
+        this.finalSecondsLeft = finalSecondsLeft;
+    }
+
+    /** @return the level that was played */
+    public int getLevel() { return level; }
+
+    /** @return the hash of the game properties the level was played with */
+    public int getConfigHash() { return configHash; }
+
+    /** @return the score carried into the level */
+    public int getStartingScore() { return startingScore; }
+
+    /** @return the number of ticks recorded */
+    public int getFrameCount() { return frameCount; }
+
+    /** @return the score when the level ended */
+    public int getFinalScore() { return finalScore; }
+
+    /** @return the seconds left when the level ended */
+    public int getFinalSecondsLeft() { return finalSecondsLeft; }
+
+    /** @return the size of the encoded inputs in bytes */
+    public int getEncodedSize() { return runs.limit(); }
+
+    /**
+     * Returns an input source that decodes the recorded inputs one tick at a time,
+     * followed by no input at all once they run out.
+     *
+     * @return a new input source positioned at the first tick
+     */
+    public InputSource playback() {
+        ByteBuffer in = runs.duplicate();
+        in.rewind();
+        return new InputSource() {
+            private FrameInput current = FrameInput.NONE;
+            private int runLeft = 0;
+
+            @Override
+            public FrameInput next() {
+                if (runLeft == 0) {
+                    if (!in.hasRemaining()) {
+                        return FrameInput.NONE;
+                    }
+                    int head = in.get() & 0xFF;
+                    current = FrameInput.of(head & KEY_MASK);
+                    int code = head >>> LENGTH_SHIFT;
+                    runLeft = code < MAX_SHORT_RUN ? code + 1 : MAX_SHORT_RUN + 1 + readVarint(in);
+                }
+                runLeft--;
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Writes the replay in its binary form.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(level);
+        out.writeInt(configHash);
+        out.writeInt(startingScore);
+        out.writeInt(finalScore);
+        out.writeInt(finalSecondsLeft);
+        out.writeInt(frameCount);
+        out.writeInt(runs.limit());
+        ByteBuffer encoded = runs.duplicate();
+        encoded.rewind();
+        byte[] chunk = new byte[Math.min(encoded.remaining(), 8192)];
+        while (encoded.hasRemaining()) {
+            int length = Math.min(chunk.length, encoded.remaining());
+            encoded.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+
+    /**
+     * Memory-maps a replay file written by {@link #writeTo(DataOutputStream)}.
+     * Only the header is read up front; the inputs are decoded from the mapping during playback.
+     *
+     * @param file the replay file
+     * @return the replay
+     * @throws IOException if the file cannot be read or does not hold a replay
+     */
+    public static Replay map(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a replay file: " + file);
+        }
+        int version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version " + version + ": " + file);
+        }
+        int level = buffer.get();
+        if (level != 1 && level != 2) {
+            throw new IOException("Not a replay file: " + file);
+        }
+        int configHash = buffer.getInt();
+        int startingScore = buffer.getInt();
+        int finalScore = buffer.getInt();
+        int finalSecondsLeft = buffer.getInt();
+        int frameCount = buffer.getInt();
+        int encodedSize = buffer.getInt();
+        if (encodedSize < 0 || encodedSize > buffer.remaining()) {
+            throw new IOException("Truncated replay file: " + file);
+        }
+        ByteBuffer runs = buffer.slice(buffer.position(), encodedSize);
+        return new Replay(level, configHash, startingScore, frameCount, runs, finalScore, finalSecondsLeft);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,94 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Records the input of every tick of a level so the run can be replayed later.
+ *
+ * Inputs are run-length encoded as they arrive, in the format described by {@link Replay},
+ * so a level where the keys change a few times a second costs well under a byte per tick.
+ */
+public class ReplayRecorder {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final int level;
+    private final int configHash;
+    private final int startingScore;
+    private byte[] runs = new byte[INITIAL_CAPACITY];
+    private int size = 0;
+    private int frameCount = 0;
+
+    // The run still being extended
+    private int currentBits = 0;
+    private int currentLength = 0;
+
+    /**
+     * Constructs a recorder for one level.
+     *
+     * @param gameProps     Properties file containing game settings.
+     * @param level         the level being played
+     * @param startingScore the score carried into the level
+     */
+    public ReplayRecorder(Properties gameProps, int level, int startingScore) {
+        this.level = level;
+        this.configHash = LevelDefinition.configHash(gameProps);
+        this.startingScore = startingScore;
+    }
+
+    /**
+     * Records the input of the next tick.
+     *
+     * @param input the keys held and pressed during the tick
+     */
+    public void record(FrameInput input) {
+        int bits = input.getBits();
+        if (currentLength > 0 && bits != currentBits) {
+            size = writeRun(currentBits, currentLength);
+            currentLength = 0;
+        }
+        currentBits = bits;
+        currentLength++;
+        frameCount++;
+    }
+
+    /**
+     * Returns the run recorded so far, ending with the level's current score and time left.
+     * Recording can carry on afterwards.
+     *
+     * @param simulation the level the inputs were fed to
+     * @return the replay
+     */
+    public Replay finish(LevelSimulation simulation) {
+        int end = currentLength > 0 ? writeRun(currentBits, currentLength) : size;
+        ByteBuffer encoded = ByteBuffer.wrap(Arrays.copyOf(runs, end));
+        return new Replay(level, configHash, startingScore, frameCount, encoded,
+                simulation.getScore(), simulation.getSecondsLeft());
+    }
+
+    /**
+     * Encodes a run after the runs already written.
+     * @return the new end of the encoded runs
+     */
+    private int writeRun(int bits, int length) {
+        int end = size;
+        if (length <= Replay.MAX_SHORT_RUN) {
+            end = put(end, bits | ((length - 1) << Replay.LENGTH_SHIFT));
+            return end;
+        }
+        end = put(end, bits | (Replay.MAX_SHORT_RUN << Replay.LENGTH_SHIFT));
+        int extra = length - Replay.MAX_SHORT_RUN - 1;
+        while ((extra & ~0x7F) != 0) {
+            end = put(end, (extra & 0x7F) | 0x80);
+            extra >>>= 7;
+        }
+        return put(end, extra);
+    }
+
+    private int put(int index, int value) {
+        if (index == runs.length) {
+            runs = Arrays.copyOf(runs, runs.length * 2);
+        }
+        runs[index] = (byte) value;
+        return index + 1;
+    }
+}
@@ -0,0 +1,160 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Plays recorded runs back through a headless level as fast as possible and checks that
+ * each one ends with the recorded score and time left.
+ *
+ * Replays are memory-mapped and decoded as they are played, so scanning a large archive
+ * keeps only the replay being checked in memory.
+ *
+ * Usage: {@code ReplayRunner <replay file or directory>...}
+ */
+public class ReplayRunner {
+    private final LevelDefinition[] LEVELS;
+    private final int CONFIG_HASH;
+
+    /**
+     * Constructs a runner.
+     *
+     * @param gameProps Properties file containing game settings; must be the ones the runs were recorded with
+     */
+    public ReplayRunner(Properties gameProps) {
+        this.LEVELS = new LevelDefinition[] {
+                LevelDefinition.compile(gameProps, 1),
+                LevelDefinition.compile(gameProps, 2)
+        };
+        this.CONFIG_HASH = LevelDefinition.configHash(gameProps);
+    }
+
+    /**
+     * Replays one run to its end. A run recorded with different game properties is not replayed.
+     *
+     * @param replay the run to replay
+     * @return the outcome of the replay
+     */
+    public ReplayResult run(Replay replay) {
+        if (replay.getConfigHash() != CONFIG_HASH) {
+            return new ReplayResult(replay, false, 0, 0, 0, 0);
+        }
+        LevelSimulation level = LevelSimulation.create(LEVELS[replay.getLevel() - 1], replay.getStartingScore());
+        InputSource input = replay.playback();
+        long start = System.nanoTime();
+        boolean isFinished = false;
+        while (!isFinished && level.getCurrFrame() < replay.getFrameCount()) {
+            isFinished = level.step(input.next());
+        }
+        long elapsed = System.nanoTime() - start;
+        return new ReplayResult(replay, true, level.getCurrFrame(), level.getScore(), level.getSecondsLeft(), elapsed);
+    }
+
+    /**
+     * The outcome of replaying one run.
+     */
+    public static class ReplayResult {
+        private final Replay replay;
+        private final boolean isSameConfig;
+        private final int frames;
+        private final int score;
+        private final int secondsLeft;
+        private final long elapsedNanos;
+
+        ReplayResult(Replay replay, boolean isSameConfig, int frames, int score, int secondsLeft, long elapsedNanos) {
+            this.replay = replay;
+            this.isSameConfig = isSameConfig;
+            this.frames = frames;
+            this.score = score;
+            this.secondsLeft = secondsLeft;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** @return {@code true} if the run was recorded with the same game properties; it is not replayed otherwise */
+        public boolean isSameConfig() { return isSameConfig; }
+
+        /** @return the number of ticks simulated */
+        public int getFrames() { return frames; }
+
+        /** @return the score the replayed level ended with */
+        public int getScore() { return score; }
+
+        /** @return the seconds left when the replayed level ended */
+        public int getSecondsLeft() { return secondsLeft; }
+
+        /** @return the wall-clock time the replay took, in nanoseconds */
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        /**
+         * Checks the replay against the recording.
+         * @return {@code true} if every tick was replayed and the score and time left match
+         */
+        public boolean matches() {
+            return isSameConfig
+                    && frames == replay.getFrameCount()
+                    && score == replay.getFinalScore()
+                    && secondsLeft == replay.getFinalSecondsLeft();
+        }
+    }
+
+    /**
+     * Lists the replay files to check, expanding each directory into the replays directly inside it.
+     *
+     * @param paths files and directories
+     * @return the replay files, with each directory's in name order
+     */
+    private static ArrayList<String> listReplays(String[] paths) {
+        ArrayList<String> files = new ArrayList<>();
+        for (String path : paths) {
+            File[] inDir = new File(path).listFiles((dir, name) -> name.endsWith(".replay"));
+            if (inDir == null) {
+                files.add(path);
+                continue;
+            }
+            Arrays.sort(inDir);
+            for (File file : inDir) {
+                files.add(file.getPath());
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Replays every file given and reports whether each one matches its recording.
+     * Files that cannot be read as replays are reported as mismatches.
+     * Exits with status 1 if any does not match.
+     *
+     * @param args the replay files, or directories of them
+     */
+    public static void main(String[] args) {
+        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+        ReplayRunner runner = new ReplayRunner(gameProps);
+        boolean isAllMatching = true;
+        for (String file : listReplays(args)) {
+            Replay replay;
+            try {
+                replay = Replay.map(Path.of(file));
+            } catch (IOException ex) {
+                // A corrupt or foreign file fails the check without stopping the scan
+                System.out.printf("MISMATCH %s: %s%n", file, ex.getMessage());
+                isAllMatching = false;
+                continue;
+            }
+            ReplayResult result = runner.run(replay);
+            isAllMatching &= result.matches();
+            if (!result.isSameConfig()) {
+                System.out.printf("MISMATCH %s: recorded with different game properties%n", file);
+                continue;
+            }
+            System.out.printf("%s %s: level %d, %d/%d ticks, score %d (recorded %d), %d s left (recorded %d), %.2f ms%n",
+                    result.matches() ? "OK" : "MISMATCH", file, replay.getLevel(),
+                    result.getFrames(), replay.getFrameCount(), result.getScore(), replay.getFinalScore(),
+                    result.getSecondsLeft(), replay.getFinalSecondsLeft(), result.getElapsedNanos() / 1e6);
+        }
+        if (!isAllMatching) {
+            System.exit(1);
+        }
+    }
+}
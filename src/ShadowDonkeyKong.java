@@ -1,4 +1,5 @@
 import bagel.*;
+import java.io.File;
 import java.util.Properties;
 
 /**
@@ -13,6 +14,10 @@ public class ShadowDonkeyKong extends AbstractGame {
 
     private final Properties GAME_PROPS;
     private final Properties MESSAGE_PROPS;
+    private final String REPLAY_DIR;  // Where finished levels are saved as replays, or null to not save them
+    private final PhaseExecutor PHASE_EXECUTOR;  // Runs the entity update phases of every level
+    private final LevelDefinition LEVEL1;
+    private final LevelDefinition LEVEL2;
 
     private int level1Score = 0;
     private State state = State.HOME;
@@ -21,16 +26,6 @@ public class ShadowDonkeyKong extends AbstractGame {
     private GamePlayScreen gamePlayScreen;
     private GameEndScreen gameEndScreen;
 
-    /**
-     * The current width of the game window.
-     */
-    public static double screenWidth;
-
-    /**
-     * The current height of the game window.
-     */
-    public static double screenHeight;
-
     /**
      * Constructs a new instance of the ShadowDonkeyKong game.
      * Initializes the game window using provided properties and sets up the home screen.
@@ -47,13 +42,43 @@ public class ShadowDonkeyKong extends AbstractGame {
 
         this.GAME_PROPS = gameProps;
         this.MESSAGE_PROPS = messageProps;
-        this.screenWidth = Integer.parseInt(gameProps.getProperty("window.width"));
-        this.screenHeight = Integer.parseInt(gameProps.getProperty("window.height"));
+        this.REPLAY_DIR = gameProps.getProperty("gamePlay.replayDir");
+        this.PHASE_EXECUTOR = PhaseExecutor.create(gameProps.getProperty("gamePlay.updateThreads"));
+        LevelDefinition[] levels = loadLevels(gameProps);
+        this.LEVEL1 = levels[0];
+        this.LEVEL2 = levels[1];
 
         homeScreen = new HomeScreen(GAME_PROPS, MESSAGE_PROPS);
     }
 
 
+    /**
+     * Compiles both levels from the game properties, once per run of the game.
+     * If {@code gamePlay.levelCache} names a snapshot file, the levels are read from it instead,
+     * and it is (re)written whenever it is missing or was compiled from different properties.
+     *
+     * @param gameProps Properties file containing game settings.
+     * @return Level 1 and Level 2
+     */
+    private static LevelDefinition[] loadLevels(Properties gameProps) {
+        String cacheFile = gameProps.getProperty("gamePlay.levelCache");
+        int configHash = LevelDefinition.configHash(gameProps);
+        if (cacheFile != null && !cacheFile.isBlank()) {
+            LevelDefinition[] levels = IOUtils.readLevelSnapshot(cacheFile, configHash);
+            if (levels != null) {
+                return levels;
+            }
+        }
+        LevelDefinition[] levels = {
+                LevelDefinition.compile(gameProps, 1),
+                LevelDefinition.compile(gameProps, 2)
+        };
+        if (cacheFile != null && !cacheFile.isBlank()) {
+            IOUtils.writeLevelSnapshot(cacheFile, configHash, levels);
+        }
+        return levels;
+    }
+
     /**
      * Render the relevant screen based on the keyboard input given by the user and the status of the gameplay.
      * @param input The current mouse/keyboard input.
@@ -98,8 +123,7 @@ public class ShadowDonkeyKong extends AbstractGame {
      * Sets the gamePlayScreen to a new Level1Screen and transitions the state to PLAYING.
      */
     private void startLevel1() {
-        gamePlayScreen = new Level1Screen(GAME_PROPS);
-        state = State.PLAYING;
+        showGamePlayScreen(new Level1Screen(GAME_PROPS, LEVEL1));
     }
 
     /**
@@ -107,13 +131,28 @@ public class ShadowDonkeyKong extends AbstractGame {
      * Sets the gamePlayScreen to a new Level2Screen and transitions the state to PLAYING.
      */
     private void startLevel2() {
-        gamePlayScreen = new Level2Screen(GAME_PROPS, level1Score);
+        showGamePlayScreen(new Level2Screen(GAME_PROPS, LEVEL2, level1Score));
+    }
+
+    /**
+     * Switches to a gameplay screen, releasing the previous level's screen if there was one.
+     * The new screen is built first, so the images both screens use stay loaded.
+     *
+     * @param screen the screen of the level to play
+     */
+    private void showGamePlayScreen(GamePlayScreen screen) {
+        if (gamePlayScreen != null) {
+            gamePlayScreen.dispose();
+        }
+        gamePlayScreen = screen;
+        gamePlayScreen.getSimulation().setPhaseExecutor(PHASE_EXECUTOR);
         state = State.PLAYING;
     }
 
     /**
      * Handles the end-of-play transition logic after a gameplay screen completes.
      *
+     *   Saves the finished level as a replay if a replay directory is configured.
      *   If Level 1 was won, captures its score and immediately starts Level 2.
      *   Otherwise, computes final score and time remaining, creates the end screen,
      *   and transitions the state to END.
@@ -123,6 +162,7 @@ public class ShadowDonkeyKong extends AbstractGame {
         boolean isWon = gamePlayScreen.isPlayerWon();
         boolean isLost = gamePlayScreen.isGameOver();
         int level = gamePlayScreen.getLevel();
+        saveReplay();
 
         if (isWon && level == 1) {
             level1Score = gamePlayScreen.getScore();
@@ -137,38 +177,38 @@ public class ShadowDonkeyKong extends AbstractGame {
         gameEndScreen.setIsWon(isWon && !isLost);
         gameEndScreen.setFinalScore(level, timeRemaining, finalScore);
 
+        gamePlayScreen.dispose();
         gamePlayScreen = null;
         state = State.END;
     }
 
+    /**
+     * Writes the level that just finished to the replay directory, if one is configured.
+     * Files are named after the level and the time it finished, e.g. {@code level1-1700000000000.replay}.
+     */
+    private void saveReplay() {
+        if (REPLAY_DIR == null || REPLAY_DIR.isBlank()) {
+            return;
+        }
+        File dir = new File(REPLAY_DIR);
+        dir.mkdirs();
+        String name = "level" + gamePlayScreen.getLevel() + "-" + System.currentTimeMillis() + ".replay";
+        IOUtils.writeReplay(new File(dir, name).getPath(), gamePlayScreen.getReplay());
+    }
+
     /**
      * Resets the game back to the home screen.
      * Clears the end screen, re-initializes the home screen, and sets the state to HOME.
      */
     private void resetToHome() {
-        gameEndScreen = null;
+        HomeScreen oldHomeScreen = homeScreen;
         homeScreen = new HomeScreen(GAME_PROPS, MESSAGE_PROPS);
+        oldHomeScreen.dispose();
+        gameEndScreen.dispose();
+        gameEndScreen = null;
         state = State.HOME;
     }
 
-    /**
-     * Retrieves the width of the game screen.
-     *
-     * @return The width of the screen in pixels.
-     */
-    public static double getScreenWidth() {
-        return screenWidth;
-    }
-
-    /**
-     * Retrieves the height of the game screen.
-     *
-     * @return The height of the screen in pixels.
-     */
-    public static double getScreenHeight() {
-        return screenHeight;
-    }
-
     /**
      * The main entry point of the Shadow Donkey Kong game.
      *
@@ -180,6 +220,7 @@ public class ShadowDonkeyKong extends AbstractGame {
     public static void main(String[] args) {
         Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
         Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
+        GameLog.start(gameProps);
         ShadowDonkeyKong game = new ShadowDonkeyKong(gameProps, messageProps);
         game.run();
     }
@@ -0,0 +1,181 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A uniform grid over the play area used as a broad phase for collision checks.
+ *
+ * Entities are bucketed by the cells their bounding box overlaps, so a query only
+ * tests the entities sharing a cell with the queried area instead of every entity in
+ * the level. Anything outside the play area is clamped into the border cells.
+ * The grid is rebuilt by clearing it and inserting the entities again; once its
+ * arrays have grown to fit the level this does not allocate.
+ *
+ * @param <T> the type of entity stored in the grid
+ */
+public class SpatialGrid<T extends GameEntity> {
+    private static final int NO_ENTRY = -1;
+
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellHeads;
+
+    // One entry per (entity, cell) pair, chained per cell
+    private int[] entryEntity;
+    private int[] entryNext;
+    private int entryCount = 0;
+
+    // Entities in insertion order, and the last query each one was seen by
+    private final ArrayList<T> entities;
+    private int[] lastQuery;
+    private int queryId = 0;
+    private int[] hits = new int[16];
+
+    /**
+     * Constructs an empty grid covering the given area.
+     *
+     * @param width    the width of the play area
+     * @param height   the height of the play area
+     * @param cellSize the side length of one cell
+     */
+    public SpatialGrid(double width, double height, double cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cellHeads = new int[columns * rows];
+        Arrays.fill(cellHeads, NO_ENTRY);
+        this.entryEntity = new int[64];
+        this.entryNext = new int[64];
+        this.entities = new ArrayList<>();
+        this.lastQuery = new int[64];
+    }
+
+    /**
+     * Constructs an empty grid with the same cells as another, and room for as many
+     * entities as it holds, so that filling it the same way does not allocate.
+     *
+     * @param source the grid to take the layout and capacity from
+     */
+    public SpatialGrid(SpatialGrid<?> source) {
+        this.cellSize = source.cellSize;
+        this.columns = source.columns;
+        this.rows = source.rows;
+        this.cellHeads = new int[columns * rows];
+        Arrays.fill(cellHeads, NO_ENTRY);
+        this.entryEntity = new int[source.entryEntity.length];
+        this.entryNext = new int[source.entryNext.length];
+        this.entities = new ArrayList<>(source.entities.size());
+        this.lastQuery = new int[source.lastQuery.length];
+    }
+
+    /**
+     * Removes every entity from the grid.
+     */
+    public void clear() {
+        Arrays.fill(cellHeads, NO_ENTRY);
+        entryCount = 0;
+        entities.clear();
+    }
+
+    /**
+     * Adds an entity to every cell the area it swept through on its last move overlaps,
+     * which for most entities is just their bounding box.
+     * Queries report entities in the order they were inserted.
+     *
+     * @param entity the entity to add
+     */
+    public void insert(T entity) {
+        int index = entities.size();
+        entities.add(entity);
+        if (index == lastQuery.length) {
+            lastQuery = Arrays.copyOf(lastQuery, index * 2);
+        }
+        lastQuery[index] = queryId;
+
+        int minColumn = column(entity.getSweptLeft());
+        int maxColumn = column(entity.getSweptRight());
+        int minRow = row(entity.getTop());
+        int maxRow = row(entity.getBottom());
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minColumn; col <= maxColumn; col++) {
+                addEntry(row * columns + col, index);
+            }
+        }
+    }
+
+    /**
+     * Collects the entities whose bounding boxes intersect the given area.
+     *
+     * @param left   the left edge of the area
+     * @param top    the top edge of the area
+     * @param right  the right edge of the area
+     * @param bottom the bottom edge of the area
+     * @param out    the list the hits are added to, in insertion order
+     */
+    public void query(double left, double top, double right, double bottom, ArrayList<T> out) {
+        queryId++;
+        int hitCount = 0;
+        int minColumn = column(left);
+        int maxColumn = column(right);
+        int minRow = row(top);
+        int maxRow = row(bottom);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minColumn; col <= maxColumn; col++) {
+                for (int entry = cellHeads[row * columns + col]; entry != NO_ENTRY; entry = entryNext[entry]) {
+                    int index = entryEntity[entry];
+                    if (lastQuery[index] == queryId) {
+                        continue; // already tested through another cell
+                    }
+                    lastQuery[index] = queryId;
+                    if (entities.get(index).intersects(left, top, right, bottom)) {
+                        hitCount = addHit(hitCount, index);
+                    }
+                }
+            }
+        }
+
+        // Hits come out in cell order; report them in insertion order like a plain loop would
+        Arrays.sort(hits, 0, hitCount);
+        for (int i = 0; i < hitCount; i++) {
+            out.add(entities.get(hits[i]));
+        }
+    }
+
+    /**
+     * Collects the entities colliding with the given entity, as
+     * {@link GameEntity#collidesWith(GameEntity)} would find them.
+     *
+     * @param entity the entity to test
+     * @param out    the list the hits are added to, in insertion order
+     */
+    public void query(GameEntity entity, ArrayList<T> out) {
+        query(entity.getSweptLeft(), entity.getTop(), entity.getSweptRight(), entity.getBottom(), out);
+    }
+
+    private int column(double x) {
+        return Math.min(columns - 1, Math.max(0, (int) Math.floor(x / cellSize)));
+    }
+
+    private int row(double y) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor(y / cellSize)));
+    }
+
+    private void addEntry(int cell, int index) {
+        if (entryCount == entryEntity.length) {
+            entryEntity = Arrays.copyOf(entryEntity, entryCount * 2);
+            entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+        }
+        entryEntity[entryCount] = index;
+        entryNext[entryCount] = cellHeads[cell];
+        cellHeads[cell] = entryCount;
+        entryCount++;
+    }
+
+    private int addHit(int hitCount, int index) {
+        if (hitCount == hits.length) {
+            hits = Arrays.copyOf(hits, hitCount * 2);
+        }
+        hits[hitCount] = index;
+        return hitCount + 1;
+    }
+}
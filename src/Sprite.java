@@ -0,0 +1,64 @@
+import bagel.Image;
+
+/**
+ * Describes the picture used by a game entity.
+ *
+ * The simulation only needs a sprite's size to compute bounding boxes, which is read
+ * straight from the image file header. The Bagel {@link Image} is created lazily the first time
+ * the sprite is drawn, so levels can be simulated without an OpenGL context.
+ */
+public class Sprite {
+    private final String path;
+    private final double width;
+    private final double height;
+    private Image image; // only created on the render thread
+
+    /**
+     * Constructs a sprite for the given image file.
+     *
+     * @param path the path to the PNG file
+     */
+    public Sprite(String path) {
+        int[] size = IOUtils.readImageSize(path);
+        this.path = path;
+        this.width = size[0];
+        this.height = size[1];
+    }
+
+    /**
+     * Returns the path of the image file behind this sprite.
+     * @return the image path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the width of the sprite in pixels.
+     * @return the width
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the sprite in pixels.
+     * @return the height
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the Bagel image for this sprite, loading it on first use.
+     * Must only be called while rendering.
+     *
+     * @return the Image to draw
+     */
+    public Image getImage() {
+        if (image == null) {
+            image = new Image(path);
+        }
+        return image;
+    }
+}
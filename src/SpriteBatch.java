@@ -0,0 +1,141 @@
+import bagel.Image;
+import java.util.Arrays;
+
+/**
+ * Collects the sprites drawn during one frame and submits them grouped by texture.
+ *
+ * Entities add themselves with {@link #draw(Sprite, double, double)} between {@link #begin()}
+ * and {@link #end()}. On {@code end()} every sprite sharing a texture is drawn back to back,
+ * so the renderer binds each texture once per frame instead of once per change, e.g. once
+ * for all left-facing monkeys and once for all right-facing ones. Textures are submitted in
+ * the order each was first drawn, so a kind of entity drawn after another still ends up on
+ * top of it; only sprites of different textures within one pass may swap overlap.
+ *
+ * The batch counts its submissions, so the effect can be checked on the metrics overlay.
+ */
+public class SpriteBatch {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int INITIAL_TEXTURES = 16;
+
+    // The frame's draw commands, in the order they were added
+    private Sprite[] sprites = new Sprite[INITIAL_CAPACITY];
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private int[] groups = new int[INITIAL_CAPACITY];
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int count = 0;
+
+    // Distinct textures in the order they were first drawn this frame
+    private Sprite[] textures = new Sprite[INITIAL_TEXTURES];
+    private int[] groupStarts = new int[INITIAL_TEXTURES + 1];
+    private int textureCount = 0;
+
+    // Counts for the last frame submitted
+    private int drawCount = 0;
+    private int textureBinds = 0;
+    private int unbatchedTextureBinds = 0;
+
+    /**
+     * Starts collecting a new frame, discarding anything not submitted.
+     */
+    public void begin() {
+        Arrays.fill(sprites, 0, count, null);
+        count = 0;
+        textureCount = 0;
+    }
+
+    /**
+     * Queues a sprite to be drawn centred at the given position.
+     *
+     * @param sprite the sprite to draw
+     * @param x      the x-coordinate of the centre
+     * @param y      the y-coordinate of the centre
+     */
+    public void draw(Sprite sprite, double x, double y) {
+        if (count == sprites.length) {
+            grow();
+        }
+        sprites[count] = sprite;
+        xs[count] = x;
+        ys[count] = y;
+        groups[count] = textureIndex(sprite);
+        count++;
+    }
+
+    /**
+     * Queues a sprite to be drawn with its top-left corner at the given position.
+     *
+     * @param sprite the sprite to draw
+     * @param left   the x-coordinate of the left edge
+     * @param top    the y-coordinate of the top edge
+     */
+    public void drawFromTopLeft(Sprite sprite, double left, double top) {
+        draw(sprite, left + sprite.getWidth() / 2, top + sprite.getHeight() / 2);
+    }
+
+    /**
+     * Draws everything queued since {@link #begin()}, one texture at a time.
+     */
+    public void end() {
+        // Counting sort of the commands by texture, keeping their order within a texture
+        Arrays.fill(groupStarts, 0, textureCount + 1, 0);
+        for (int i = 0; i < count; i++) {
+            groupStarts[groups[i] + 1]++;
+        }
+        for (int group = 0; group < textureCount; group++) {
+            groupStarts[group + 1] += groupStarts[group];
+        }
+        unbatchedTextureBinds = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || groups[i] != groups[i - 1]) {
+                unbatchedTextureBinds++;
+            }
+            order[groupStarts[groups[i]]++] = i;
+        }
+
+        int next = 0;
+        for (int group = 0; group < textureCount; group++) {
+            Image image = textures[group].getImage();
+            int end = groupStarts[group];
+            for (; next < end; next++) {
+                int command = order[next];
+                image.draw(xs[command], ys[command]);
+            }
+        }
+        drawCount = count;
+        textureBinds = textureCount;
+    }
+
+    /** @return the number of sprites drawn in the last frame */
+    public int getDrawCount() { return drawCount; }
+
+    /** @return the number of times the texture changed in the last frame, once per texture used */
+    public int getTextureBinds() { return textureBinds; }
+
+    /** @return the number of times the texture would have changed had the last frame been drawn in call order */
+    public int getUnbatchedTextureBinds() { return unbatchedTextureBinds; }
+
+    private int textureIndex(Sprite sprite) {
+        // A frame uses a handful of textures, so a linear scan beats hashing
+        for (int i = 0; i < textureCount; i++) {
+            if (textures[i] == sprite) {
+                return i;
+            }
+        }
+        if (textureCount == textures.length) {
+            textures = Arrays.copyOf(textures, textureCount * 2);
+            groupStarts = Arrays.copyOf(groupStarts, textureCount * 2 + 1);
+        }
+        textures[textureCount] = sprite;
+        return textureCount++;
+    }
+
+    private void grow() {
+        int capacity = sprites.length * 2;
+        sprites = Arrays.copyOf(sprites, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        groups = Arrays.copyOf(groups, capacity);
+        order = Arrays.copyOf(order, capacity);
+    }
+}
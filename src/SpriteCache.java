@@ -0,0 +1,69 @@
+import java.util.HashMap;
+
+/**
+ * Shares one {@link Sprite} per image file between everything that draws it.
+ *
+ * However many entities, screens and levels use an image, its header is read once and its
+ * texture is uploaded once, the first time it is drawn. Sprites are reference counted: each
+ * {@link #acquire(String)} must be matched by a {@link #release(Sprite)} when the holder is
+ * thrown away, and a sprite nothing holds any more is dropped so its texture can be freed.
+ * Sprites held in static fields are acquired once and never released.
+ *
+ * The cache is shared by every thread, so headless levels can be built in parallel.
+ */
+public final class SpriteCache {
+    private static final HashMap<String, Entry> SPRITES = new HashMap<>();
+
+    private SpriteCache() {
+    }
+
+    /**
+     * Returns the sprite for an image file, loading it if nothing holds it yet.
+     *
+     * @param path the path to the PNG file
+     * @return the shared sprite
+     */
+    public static synchronized Sprite acquire(String path) {
+        Entry entry = SPRITES.get(path);
+        if (entry == null) {
+            entry = new Entry(new Sprite(path));
+            SPRITES.put(path, entry);
+        }
+        entry.references++;
+        return entry.sprite;
+    }
+
+    /**
+     * Gives up one reference to a sprite. Once the last one is given up the sprite is dropped,
+     * and the next {@link #acquire(String)} loads it again.
+     *
+     * @param sprite a sprite returned by {@link #acquire(String)}
+     */
+    public static synchronized void release(Sprite sprite) {
+        Entry entry = SPRITES.get(sprite.getPath());
+        if (entry == null || entry.sprite != sprite) {
+            throw new IllegalArgumentException("Sprite is not in the cache: " + sprite.getPath());
+        }
+        if (--entry.references == 0) {
+            SPRITES.remove(sprite.getPath());
+        }
+    }
+
+    /**
+     * Returns the number of images currently held.
+     *
+     * @return the number of cached sprites
+     */
+    public static synchronized int size() {
+        return SPRITES.size();
+    }
+
+    private static class Entry {
+        private final Sprite sprite;
+        private int references = 0;
+
+        Entry(Sprite sprite) {
+            this.sprite = sprite;
+        }
+    }
+}
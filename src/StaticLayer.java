@@ -0,0 +1,195 @@
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The parts of a level that do not move, composited into a single image.
+ *
+ * The background and the platforms never move, and the ladders stop moving once gravity has
+ * settled them on a platform. Instead of drawing each of them every frame, they are painted
+ * once into one image with Java2D and that image is drawn in their place. Ladders are left out
+ * and drawn one by one until none of them moved during the last frame. If anything in the
+ * layer moves again, the layer is rebuilt.
+ *
+ * Bagel only loads images from files, so composites are written to temporary PNG files.
+ * Each layout is composited once and shared by every layer showing it; the composites are
+ * reference counted, and a file is deleted as soon as no layer shows its layout any more.
+ */
+public class StaticLayer {
+    // Composites in use, by background and layout
+    private static final HashMap<String, Composite> COMPOSITES = new HashMap<>();
+
+    private final Sprite background;
+
+    // Positions painted into the current composite: platforms, then the ladders if included
+    private double[] layout = new double[0];
+    private String compositeKey;
+    private Sprite composite;
+    private boolean hasLadders = false;
+
+    // Ladder positions seen in the previous frame, to tell when they have settled
+    private double[] lastLadders = new double[0];
+    private boolean isLaddersSettled = false;
+
+    /**
+     * Constructs an empty layer over the given background.
+     *
+     * @param background the image covering the whole play area
+     */
+    public StaticLayer(Sprite background) {
+        this.background = background;
+    }
+
+    /**
+     * Draws the background, platforms and ladders, rebuilding the composite first if they have moved.
+     *
+     * @param batch     the batch collecting this frame's sprites
+     * @param platforms the level's platforms
+     * @param ladders   the level's ladders
+     */
+    public void draw(SpriteBatch batch, Platform[] platforms, ArrayList<Ladder> ladders) {
+        trackLadders(ladders);
+        if (composite == null || hasLadders != isLaddersSettled || !isUnchanged(platforms, ladders)) {
+            rebuild(platforms, ladders);
+        }
+        batch.drawFromTopLeft(composite, 0, 0);
+        if (!hasLadders) {
+            for (Ladder ladder : ladders) {
+                ladder.draw(batch);
+            }
+        }
+    }
+
+    /**
+     * Releases the composite, deleting its file if no other layer shows it.
+     * Call once the level is no longer shown.
+     */
+    public void dispose() {
+        if (composite != null) {
+            SpriteCache.release(composite);
+            synchronized (COMPOSITES) {
+                Composite shared = COMPOSITES.get(compositeKey);
+                if (--shared.references == 0) {
+                    COMPOSITES.remove(compositeKey);
+                    new File(shared.path).delete();
+                }
+            }
+            composite = null;
+            compositeKey = null;
+        }
+    }
+
+    /**
+     * Compares the ladders with the previous frame; they have settled once none of them moved.
+     */
+    private void trackLadders(ArrayList<Ladder> ladders) {
+        boolean isSettled = lastLadders.length == ladders.size() * 2;
+        if (!isSettled) {
+            lastLadders = new double[ladders.size() * 2];
+        }
+        for (int i = 0; i < ladders.size(); i++) {
+            Ladder ladder = ladders.get(i);
+            isSettled &= lastLadders[2 * i] == ladder.getX() && lastLadders[2 * i + 1] == ladder.getY();
+            lastLadders[2 * i] = ladder.getX();
+            lastLadders[2 * i + 1] = ladder.getY();
+        }
+        isLaddersSettled = isSettled;
+    }
+
+    private boolean isUnchanged(Platform[] platforms, ArrayList<Ladder> ladders) {
+        int size = platforms.length * 2 + (hasLadders ? ladders.size() * 2 : 0);
+        if (layout.length != size) {
+            return false;
+        }
+        int i = 0;
+        for (Platform platform : platforms) {
+            if (layout[i++] != platform.getX() || layout[i++] != platform.getY()) {
+                return false;
+            }
+        }
+        if (hasLadders) {
+            for (Ladder ladder : ladders) {
+                if (layout[i++] != ladder.getX() || layout[i++] != ladder.getY()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void rebuild(Platform[] platforms, ArrayList<Ladder> ladders) {
+        hasLadders = isLaddersSettled;
+        ArrayList<GameEntity> entities = new ArrayList<>(Arrays.asList(platforms));
+        if (hasLadders) {
+            entities.addAll(ladders);
+        }
+        layout = new double[entities.size() * 2];
+        for (int i = 0; i < entities.size(); i++) {
+            layout[2 * i] = entities.get(i).getX();
+            layout[2 * i + 1] = entities.get(i).getY();
+        }
+
+        String key = background.getPath() + Arrays.toString(layout);
+        String path;
+        synchronized (COMPOSITES) {
+            Composite shared = COMPOSITES.get(key);
+            if (shared == null) {
+                shared = new Composite(paint(entities));
+                COMPOSITES.put(key, shared);
+            }
+            shared.references++;
+            path = shared.path;
+        }
+        // Take the new composite before giving up the old one, which may be the same
+        Sprite rebuilt = SpriteCache.acquire(path);
+        dispose();
+        composite = rebuilt;
+        compositeKey = key;
+    }
+
+    /**
+     * Paints the background and the given entities into a new temporary PNG file.
+     * @return the path of the file
+     */
+    private String paint(ArrayList<GameEntity> entities) {
+        BufferedImage image = new BufferedImage((int) background.getWidth(), (int) background.getHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        HashMap<String, BufferedImage> sources = new HashMap<>();
+        graphics.drawImage(IOUtils.readImage(background.getPath()), 0, 0, null);
+        for (GameEntity entity : entities) {
+            Sprite sprite = entity.getSprite();
+            BufferedImage source = sources.computeIfAbsent(sprite.getPath(), IOUtils::readImage);
+            // Bagel draws sprites centred on the entity's position
+            graphics.drawImage(source, AffineTransform.getTranslateInstance(
+                    entity.getX() - sprite.getWidth() / 2, entity.getY() - sprite.getHeight() / 2), null);
+        }
+        graphics.dispose();
+
+        String path = null;
+        try {
+            File file = File.createTempFile("static-layer", ".png");
+            file.deleteOnExit();
+            path = file.getPath();
+        } catch(IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+        IOUtils.writeImage(path, image);
+        return path;
+    }
+
+    private static class Composite {
+        private final String path;
+        private int references = 0;
+
+        Composite(String path) {
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that swept collision tests give the same answer whichever entity they are asked from.
+ * Run from the repository root, since sprites are read from res/.
+ */
+public class ProjectileCollisionTest {
+    /**
+     * A projectile fast enough to pass right over a platform in a single tick.
+     */
+    private static class FastProjectile extends Projectile {
+        private static final double SPEED = 2000;
+
+        FastProjectile() {
+            super(new EntityStore(1), SpriteCache.acquire("res/bullet_right.png"));
+        }
+
+        @Override
+        protected double getSpeed() {
+            return SPEED;
+        }
+
+        @Override
+        public void move() {
+            advance(SPEED);
+        }
+    }
+
+    @Test
+    public void projectileCollidesWithWhatItPassedOverInBothOrders() {
+        Platform platform = new Platform(0, 300);
+        FastProjectile projectile = new FastProjectile();
+        projectile.launch(-1000, 300, true);
+        projectile.move();
+
+        // The projectile has moved past the platform, so only its swept area touches it
+        assertTrue(projectile.getLeft() > platform.getRight());
+        assertTrue(projectile.collidesWith(platform));
+        assertTrue(platform.collidesWith(projectile));
+    }
+
+    @Test
+    public void projectileFlyingLeftCollidesInBothOrders() {
+        Platform platform = new Platform(0, 300);
+        FastProjectile projectile = new FastProjectile();
+        projectile.launch(1000, 300, false);
+        projectile.move();
+
+        assertTrue(projectile.getRight() < platform.getLeft());
+        assertTrue(projectile.collidesWith(platform));
+        assertTrue(platform.collidesWith(projectile));
+    }
+
+    @Test
+    public void projectileMissesWhatItHasNotReachedInBothOrders() {
+        Platform platform = new Platform(3000, 300);
+        FastProjectile projectile = new FastProjectile();
+        projectile.launch(-1000, 300, true);
+        projectile.move();
+
+        assertFalse(projectile.collidesWith(platform));
+        assertFalse(platform.collidesWith(projectile));
+    }
+
+    @Test
+    public void projectileSweepsNothingBeforeItsFirstMove() {
+        FastProjectile projectile = new FastProjectile();
+        projectile.launch(500, 300, true);
+
+        assertEquals(projectile.getLeft(), projectile.getSweptLeft());
+        assertEquals(projectile.getRight(), projectile.getSweptRight());
+    }
+
+    @Test
+    public void bulletsAgreeInBothOrders() {
+        Bullet first = new Bullet(new EntityStore(1));
+        Bullet second = new Bullet(new EntityStore(1));
+        first.launch(100, 300, true);
+        second.launch(100, 300, false);
+        for (int tick = 0; tick < 20; tick++) {
+            assertEquals(first.collidesWith(second), second.collidesWith(first));
+            first.update();
+            second.update();
+        }
+    }
+}